@@ -1,13 +1,34 @@
 package mc.recraftors.unruled_api;
 
 import com.mojang.brigadier.arguments.IntegerArgumentType;
+import mc.recraftors.unruled_api.impl.CoalescedCallbacks;
+import mc.recraftors.unruled_api.impl.DoubleRuleValidatorAdapter;
+import mc.recraftors.unruled_api.impl.FloatRuleValidatorAdapter;
 import mc.recraftors.unruled_api.impl.GameruleValidatorAdapter;
+import mc.recraftors.unruled_api.impl.LongRuleValidatorAdapter;
+import mc.recraftors.unruled_api.impl.RuleEvents;
+import mc.recraftors.unruled_api.impl.RuleInterestPayload;
+import mc.recraftors.unruled_api.impl.RuleSchemas;
+import mc.recraftors.unruled_api.impl.RuleSlots;
+import mc.recraftors.unruled_api.impl.RuleSnapshots;
+import mc.recraftors.unruled_api.impl.RuleSync;
+import mc.recraftors.unruled_api.impl.RuleSyncPayload;
+import mc.recraftors.unruled_api.impl.StableRules;
 import mc.recraftors.unruled_api.mixin.GameRuleTypeInvoker;
 import mc.recraftors.unruled_api.rules.*;
+import mc.recraftors.unruled_api.utils.CoalescedChangeCallback;
+import mc.recraftors.unruled_api.utils.GameRulesSnapshot;
 import mc.recraftors.unruled_api.utils.GameruleAccessor;
 import mc.recraftors.unruled_api.utils.IGameruleAdapter;
 import mc.recraftors.unruled_api.utils.IGameruleValidator;
+import mc.recraftors.unruled_api.utils.RuleChangeListener;
+import mc.recraftors.unruled_api.utils.RuleHandle;
+import mc.recraftors.unruled_api.utils.RuleSchema;
+import mc.recraftors.unruled_api.utils.StableRule;
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
 import net.minecraft.command.EntitySelector;
 import net.minecraft.resource.featuretoggle.FeatureSet;
 import net.minecraft.server.MinecraftServer;
@@ -17,7 +38,9 @@ import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Objects;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import static net.minecraft.world.GameRules.*;
 
@@ -41,6 +64,20 @@ public class UnruledApi implements ModInitializer {
 		return Math.max(i, (int) Math.ceil(s.length() / 8d) * 8);
 	}
 
+	/**
+	 * Wraps the provided callback into a change callback coalescing a rule's writes over a server tick.
+	 * <p>
+	 * Pass the result as the change callback of any {@code create<Type>} method for the callback to run
+	 * at most once per tick and rule, after the tick's last write, with the number of coalesced writes.
+	 * @param callback The coalesced callback to run.
+	 * @return The coalescing change callback.
+	 * @param <T> The gamerule's type.
+	 */
+	@Contract("_ -> new")
+	@NotNull public static <T extends Rule<T>> BiConsumer<MinecraftServer, T> coalesced(CoalescedChangeCallback<T> callback) {
+		return new CoalescedCallbacks<>(Objects.requireNonNull(callback));
+	}
+
 	/**
 	 * Registers the provided gamerule in the specified category and with the specified name,
 	 * and returns the registered rule's key.
@@ -54,6 +91,250 @@ public class UnruledApi implements ModInitializer {
 		return GameRules.register(name, category, type);
 	}
 
+	/**
+	 * Returns the handle of the provided registered gamerule.
+	 * <p>
+	 * Handles read rules through the slot assigned upon registration,
+	 * without any map lookup, and are best kept in a static field.
+	 * @param key The registered rule's key.
+	 * @return The rule's handle.
+	 * @param <T> The gamerule's type.
+	 * @throws IllegalArgumentException If the key was never registered.
+	 */
+	@NotNull public static <T extends Rule<T>> RuleHandle<T> getHandle(Key<T> key) {
+		return RuleSlots.get(key);
+	}
+
+	/**
+	 * Returns the latest snapshot of the running server's gamerule values.
+	 * <p>
+	 * Snapshots are immutable and safe to read from any thread,
+	 * and a new one is published whenever a rule changes.
+	 * @return The current gamerules snapshot.
+	 */
+	@NotNull public static GameRulesSnapshot snapshot() {
+		return RuleSnapshots.current();
+	}
+
+	/**
+	 * Subscribes the provided listener to the changes of the provided registered gamerule on the running server.
+	 * <p>
+	 * Listener values are of the rule's {@link GameRulesSnapshot snapshot} value type,
+	 * which the provided value type must match.
+	 * Rules without any listener do not pay for dispatching.
+	 * @param key The registered rule's key.
+	 * @param valueType The rule's snapshot value type.
+	 * @param listener The listener to subscribe.
+	 * @param <T> The gamerule's type.
+	 * @param <V> The gamerule's value type.
+	 * @throws IllegalArgumentException If the key was never registered, or if the rule's values aren't of the provided type.
+	 */
+	public static <T extends Rule<T>, V> void subscribe(Key<T> key, Class<V> valueType, RuleChangeListener<? super V> listener) {
+		Object value = GameRulesSnapshot.valueOf(getHandle(key).getType().createRule());
+		if (value != null && !valueType.isInstance(value)) {
+			throw new IllegalArgumentException("Gamerule " + key + " values are of type " + value.getClass().getName() + ", not " + valueType.getName());
+		}
+		RuleEvents.subscribe(key, Objects.requireNonNull(listener));
+	}
+
+	/**
+	 * Subscribes the provided listener to the changes of the provided registered Boolean gamerule on the running server.
+	 * @param key The registered rule's key.
+	 * @param listener The listener to subscribe.
+	 * @throws IllegalArgumentException If the key was never registered.
+	 */
+	public static void subscribeBoolean(Key<BooleanRule> key, RuleChangeListener<? super Boolean> listener) {
+		RuleEvents.subscribe(key, Objects.requireNonNull(listener));
+	}
+
+	/**
+	 * Subscribes the provided listener to the changes of the provided registered Integer gamerule on the running server.
+	 * @param key The registered rule's key.
+	 * @param listener The listener to subscribe.
+	 * @throws IllegalArgumentException If the key was never registered.
+	 */
+	public static void subscribeInt(Key<IntRule> key, RuleChangeListener<? super Integer> listener) {
+		RuleEvents.subscribe(key, Objects.requireNonNull(listener));
+	}
+
+	/**
+	 * Subscribes the provided listener to the changes of the provided registered Float gamerule on the running server.
+	 * @param key The registered rule's key.
+	 * @param listener The listener to subscribe.
+	 * @throws IllegalArgumentException If the key was never registered.
+	 */
+	public static void subscribeFloat(Key<FloatRule> key, RuleChangeListener<? super Float> listener) {
+		RuleEvents.subscribe(key, Objects.requireNonNull(listener));
+	}
+
+	/**
+	 * Subscribes the provided listener to the changes of the provided registered Long gamerule on the running server.
+	 * @param key The registered rule's key.
+	 * @param listener The listener to subscribe.
+	 * @throws IllegalArgumentException If the key was never registered.
+	 */
+	public static void subscribeLong(Key<LongRule> key, RuleChangeListener<? super Long> listener) {
+		RuleEvents.subscribe(key, Objects.requireNonNull(listener));
+	}
+
+	/**
+	 * Subscribes the provided listener to the changes of the provided registered Double gamerule on the running server.
+	 * @param key The registered rule's key.
+	 * @param listener The listener to subscribe.
+	 * @throws IllegalArgumentException If the key was never registered.
+	 */
+	public static void subscribeDouble(Key<DoubleRule> key, RuleChangeListener<? super Double> listener) {
+		RuleEvents.subscribe(key, Objects.requireNonNull(listener));
+	}
+
+	/**
+	 * Subscribes the provided listener to the changes of the provided registered Enum gamerule on the running server.
+	 * @param key The registered rule's key.
+	 * @param listener The listener to subscribe.
+	 * @param <E> The gamerule's enum type.
+	 * @throws IllegalArgumentException If the key was never registered.
+	 */
+	public static <E extends Enum<E>> void subscribeEnum(Key<EnumRule<E>> key, RuleChangeListener<? super E> listener) {
+		RuleEvents.subscribe(key, Objects.requireNonNull(listener));
+	}
+
+	/**
+	 * Subscribes the provided listener to the changes of the provided registered String gamerule on the running server.
+	 * @param key The registered rule's key.
+	 * @param listener The listener to subscribe.
+	 * @throws IllegalArgumentException If the key was never registered.
+	 */
+	public static void subscribeString(Key<StringRule> key, RuleChangeListener<? super String> listener) {
+		RuleEvents.subscribe(key, Objects.requireNonNull(listener));
+	}
+
+	/**
+	 * Subscribes the provided listener to the changes of the provided registered EntitySelector gamerule on the running server.
+	 * @param key The registered rule's key.
+	 * @param listener The listener to subscribe.
+	 * @throws IllegalArgumentException If the key was never registered.
+	 */
+	public static void subscribeEntitySelector(Key<EntitySelectorRule> key, RuleChangeListener<? super EntitySelector> listener) {
+		RuleEvents.subscribe(key, Objects.requireNonNull(listener));
+	}
+
+	/**
+	 * Unsubscribes the provided listener from the changes of the provided registered gamerule.
+	 * @param key The registered rule's key.
+	 * @param listener The listener to unsubscribe.
+	 * @return Whether the listener was subscribed to the rule.
+	 * @param <T> The gamerule's type.
+	 */
+	public static <T extends Rule<T>> boolean unsubscribe(Key<T> key, RuleChangeListener<?> listener) {
+		return RuleEvents.unsubscribe(key, listener);
+	}
+
+	/**
+	 * Declares the provided registered gamerule as synced to the clients having this library.
+	 * <p>
+	 * Joining players receive the values of the synced rules their client is interested in, then their changes once
+	 * per tick. Clients declare their interests through {@code UnruledApiClient.interest}, and read the values through
+	 * {@code UnruledApiClient.getSyncedRules()}.
+	 * <p>
+	 * Without the Fabric networking API, rules aren't synced and this only logs a warning.
+	 * @param key The registered rule's key.
+	 * @return The provided key, for chaining with the rule's registration.
+	 * @param <T> The gamerule's type.
+	 * @throws IllegalArgumentException If the key was never registered.
+	 */
+	@Contract("_ -> param1")
+	@NotNull public static <T extends Rule<T>> Key<T> synced(Key<T> key) {
+		if (!RuleSync.AVAILABLE) {
+			LOGGER.warn("Gamerule {} can't be synced without the Fabric networking API", key.getName());
+			return key;
+		}
+		RuleSync.register(key);
+		return key;
+	}
+
+	/**
+	 * Declares the persistence schema of the provided registered gamerule.
+	 * <p>
+	 * Values persisted with an older schema version, or under one of the rule's former names,
+	 * are migrated upon loading. Values of the current version are loaded without any migration.
+	 * <p>
+	 * Schemas must be declared before any world is loaded, typically right after the rule's registration.
+	 * @param key The registered rule's key.
+	 * @param schema The rule's schema.
+	 * @throws IllegalArgumentException If the key was never registered.
+	 */
+	public static void schema(Key<?> key, RuleSchema schema) {
+		RuleSchemas.register(key, Objects.requireNonNull(schema));
+	}
+
+	/**
+	 * Creates a stable view of the provided registered gamerule,
+	 * exposing its value as a call site the JIT can fold as a constant.
+	 * <p>
+	 * Any change of the rule on the server invalidates the call site,
+	 * which is thus best suited for rules which rarely change.
+	 * @param key The registered rule's key.
+	 * @param valueType The rule's value type, primitive types allowing unboxed reads.
+	 * @param reader The rule's value reader.
+	 * @return The rule's new stable view.
+	 * @param <T> The gamerule's type.
+	 * @param <V> The gamerule's value type.
+	 * @see StableRule#invoker()
+	 */
+	@NotNull public static <T extends Rule<T>, V> StableRule<T, V> stable(Key<T> key, Class<V> valueType, Function<T, V> reader) {
+		return StableRules.register(new StableRule<>(getHandle(key), valueType, reader));
+	}
+
+	/**
+	 * Creates a stable view of the provided registered Boolean gamerule,
+	 * whose invoker is of type {@code ()Z}.
+	 * @param key The registered rule's key.
+	 * @return The rule's new stable view.
+	 */
+	@NotNull public static StableRule<BooleanRule, Boolean> stableBoolean(Key<BooleanRule> key) {
+		return stable(key, boolean.class, BooleanRule::get);
+	}
+
+	/**
+	 * Creates a stable view of the provided registered Integer gamerule,
+	 * whose invoker is of type {@code ()I}.
+	 * @param key The registered rule's key.
+	 * @return The rule's new stable view.
+	 */
+	@NotNull public static StableRule<IntRule, Integer> stableInt(Key<IntRule> key) {
+		return stable(key, int.class, IntRule::get);
+	}
+
+	/**
+	 * Creates a stable view of the provided registered Float gamerule,
+	 * whose invoker is of type {@code ()F}.
+	 * @param key The registered rule's key.
+	 * @return The rule's new stable view.
+	 */
+	@NotNull public static StableRule<FloatRule, Float> stableFloat(Key<FloatRule> key) {
+		return stable(key, float.class, FloatRule::get);
+	}
+
+	/**
+	 * Creates a stable view of the provided registered Long gamerule,
+	 * whose invoker is of type {@code ()J}.
+	 * @param key The registered rule's key.
+	 * @return The rule's new stable view.
+	 */
+	@NotNull public static StableRule<LongRule, Long> stableLong(Key<LongRule> key) {
+		return stable(key, long.class, LongRule::get);
+	}
+
+	/**
+	 * Creates a stable view of the provided registered Double gamerule,
+	 * whose invoker is of type {@code ()D}.
+	 * @param key The registered rule's key.
+	 * @return The rule's new stable view.
+	 */
+	@NotNull public static StableRule<DoubleRule, Double> stableDouble(Key<DoubleRule> key) {
+		return stable(key, double.class, DoubleRule::get);
+	}
+
 	/**
 	 * Creates a vanilla Boolean gamerule with the provided default value and change callback.
 	 * @param initialValue The new gamerule's default value.
@@ -139,6 +420,25 @@ public class UnruledApi implements ModInitializer {
 		return DoubleRule.create(initialValue, changeCallback, validatorAdapter, validatorAdapter);
 	}
 
+	/**
+	 * Creates a new Double gamerule, able to hold values from {@link Double#MIN_VALUE} to
+	 * {@link Double#MAX_VALUE}, with the provided default value and change callback.
+	 * <p>
+	 * The primitive validator and adapter never box the rule's values,
+	 * so that validating and setting them does not allocate.
+	 * @param initialValue The new gamerule's default value.
+	 * @param changeCallback The new gamerule's change callback.
+	 * @param validatorAdapter The new gamerule's invalid value validator and adapter.
+	 * @return The newly created gamerule's reference.
+	 */
+	@Contract(value = "_, _, _ -> new", pure = true)
+	@NotNull public static Type<DoubleRule> createDouble(
+			double initialValue, BiConsumer<MinecraftServer, DoubleRule> changeCallback,
+			DoubleRuleValidatorAdapter validatorAdapter
+	) {
+		return DoubleRule.create(initialValue, changeCallback, validatorAdapter, validatorAdapter);
+	}
+
 	/**
 	 * Creates a new Double gamerule, able to hold values from {@link Double#MIN_VALUE} to
 	 * {@link Double#MAX_VALUE}, with the provided default value and change callback.
@@ -182,6 +482,23 @@ public class UnruledApi implements ModInitializer {
 		return DoubleRule.create(initialValue, validatorAdapter, validatorAdapter);
 	}
 
+	/**
+	 * Creates a new Double gamerule, able to hold values from {@link Double#MIN_VALUE} to
+	 * {@link Double#MAX_VALUE}, with the provided default value.
+	 * <p>
+	 * The primitive validator and adapter never box the rule's values,
+	 * so that validating and setting them does not allocate.
+	 * @param initialValue The new gamerule's default value.
+	 * @param validatorAdapter The new gamerule's invalid value validator and adapter.
+	 * @return The newly created gamerule's reference.
+	 */
+	@Contract(value = "_, _ -> new", pure = true)
+	@NotNull public static Type<DoubleRule> createDouble(
+			double initialValue, DoubleRuleValidatorAdapter validatorAdapter
+	) {
+		return DoubleRule.create(initialValue, validatorAdapter, validatorAdapter);
+	}
+
 	/**
 	 * Creates a new Double gamerule, able to hold values from {@link Double#MIN_VALUE} to
 	 * {@link Double#MAX_VALUE}, with the provided default value.
@@ -285,7 +602,7 @@ public class UnruledApi implements ModInitializer {
 	@NotNull public static Key<DoubleRule> registerDouble(
 			String name, Category category, double initialValue, GameruleValidatorAdapter<Double> validatorAdapter
 	) {
-		return register(name, category, createDouble(initialValue));
+		return register(name, category, createDouble(initialValue, validatorAdapter, validatorAdapter));
 	}
 
 	/**
@@ -555,6 +872,25 @@ public class UnruledApi implements ModInitializer {
 		return FloatRule.create(initialValue, changeCallback, validatorAdapter, validatorAdapter);
 	}
 
+	/**
+	 * Creates a new Float gamerule, able to hold values from {@link Float#MIN_VALUE} to
+	 * {@link Float#MAX_VALUE}, with the provided default value and change callback.
+	 * <p>
+	 * The primitive validator and adapter never box the rule's values,
+	 * so that validating and setting them does not allocate.
+	 * @param initialValue The new gamerule's default value.
+	 * @param changeCallback The new gamerule's change callback.
+	 * @param validatorAdapter The new gamerule's invalid value validator and adapter.
+	 * @return The newly created gamerule's reference.
+	 */
+	@Contract(value = "_, _, _ -> new", pure = true)
+	@NotNull public static Type<FloatRule> createFloat(
+			float initialValue, BiConsumer<MinecraftServer, FloatRule> changeCallback,
+			FloatRuleValidatorAdapter validatorAdapter
+	) {
+		return FloatRule.create(initialValue, changeCallback, validatorAdapter, validatorAdapter);
+	}
+
 	/**
 	 * Creates a new Float gamerule, able to hold values from {@link Float#MIN_VALUE} to
 	 * {@link Float#MAX_VALUE}, with the provided default value and change callback.
@@ -598,6 +934,23 @@ public class UnruledApi implements ModInitializer {
 		return FloatRule.create(initialValue, validatorAdapter, validatorAdapter);
 	}
 
+	/**
+	 * Creates a new Float gamerule, able to hold values from {@link Float#MIN_VALUE} to
+	 * {@link Float#MAX_VALUE}, with the provided default value.
+	 * <p>
+	 * The primitive validator and adapter never box the rule's values,
+	 * so that validating and setting them does not allocate.
+	 * @param initialValue The new gamerule's default value.
+	 * @param validatorAdapter The new gamerule's invalid value validator and adapter.
+	 * @return The newly created gamerule's reference.
+	 */
+	@Contract(value = "_, _ -> new", pure = true)
+	@NotNull public static Type<FloatRule> createFloat(
+			float initialValue, FloatRuleValidatorAdapter validatorAdapter
+	) {
+		return FloatRule.create(initialValue, validatorAdapter, validatorAdapter);
+	}
+
 	/**
 	 * Creates a new Float gamerule, able to hold values from {@link Float#MIN_VALUE} to
 	 * {@link Float#MAX_VALUE}, with the provided default value.
@@ -915,6 +1268,25 @@ public class UnruledApi implements ModInitializer {
 		return LongRule.create(initialValue, changeCallback, validatorAdapter, validatorAdapter);
 	}
 
+	/**
+	 * Creates a new Long gamerule, able to hold values from {@link Long#MIN_VALUE} to
+	 * {@link Long#MAX_VALUE}, with the provided default value and change callback.
+	 * <p>
+	 * The primitive validator and adapter never box the rule's values,
+	 * so that validating and setting them does not allocate.
+	 * @param initialValue The new gamerule's default value.
+	 * @param changeCallback The new gamerule's change callback.
+	 * @param validatorAdapter The new gamerule's value validator and adapter.
+	 * @return The newly created gamerule's reference.
+	 */
+	@Contract(value = "_, _, _ -> new", pure = true)
+	@NotNull public static Type<LongRule> createLong(
+			long initialValue, BiConsumer<MinecraftServer, LongRule> changeCallback,
+			LongRuleValidatorAdapter validatorAdapter
+	) {
+		return LongRule.create(initialValue, changeCallback, validatorAdapter, validatorAdapter);
+	}
+
 	/**
 	 * Creates a new Long gamerule, able to hold values from {@link Long#MIN_VALUE} to
 	 * {@link Long#MAX_VALUE}, with the provided default value and change callback.
@@ -958,6 +1330,23 @@ public class UnruledApi implements ModInitializer {
 		return LongRule.create(initialValue, validatorAdapter, validatorAdapter);
 	}
 
+	/**
+	 * Creates a new Long gamerule, able to hold values from {@link Long#MIN_VALUE} to
+	 * {@link Long#MAX_VALUE}, with the provided default value.
+	 * <p>
+	 * The primitive validator and adapter never box the rule's values,
+	 * so that validating and setting them does not allocate.
+	 * @param initialValue The new gamerule's default value.
+	 * @param validatorAdapter The new gamerule's value validator and adapter.
+	 * @return The newly created gamerule's reference.
+	 */
+	@Contract(value = "_, _ -> new", pure = true)
+	@NotNull public static Type<LongRule> createLong(
+			long initialValue, LongRuleValidatorAdapter validatorAdapter
+	) {
+		return LongRule.create(initialValue, validatorAdapter, validatorAdapter);
+	}
+
 	/**
 	 * Creates a new Long gamerule, able to hold values from {@link Long#MIN_VALUE} to
 	 * {@link Long#MAX_VALUE}, with the provided default value.
@@ -2095,5 +2484,13 @@ public class UnruledApi implements ModInitializer {
 
 	@Override
 	public void onInitialize() {
+		if (!RuleSync.AVAILABLE) {
+			LOGGER.info("Fabric networking API not found, gamerules won't be synced to clients");
+			return;
+		}
+		PayloadTypeRegistry.playS2C().register(RuleSyncPayload.ID, RuleSyncPayload.CODEC);
+		PayloadTypeRegistry.playC2S().register(RuleInterestPayload.ID, RuleInterestPayload.CODEC);
+		ServerPlayNetworking.registerGlobalReceiver(RuleInterestPayload.ID, (payload, context) -> RuleSync.subscribe(context.player(), payload));
+		ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> RuleSync.unsubscribe(handler.player));
 	}
 }
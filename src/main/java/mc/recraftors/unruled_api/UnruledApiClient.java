@@ -1,20 +1,82 @@
 package mc.recraftors.unruled_api;
 
+import mc.recraftors.unruled_api.impl.ClientRuleSync;
+import mc.recraftors.unruled_api.impl.RuleInterestPayload;
+import mc.recraftors.unruled_api.impl.RuleSync;
+import mc.recraftors.unruled_api.impl.RuleSyncPayload;
+import mc.recraftors.unruled_api.utils.ClientRulesView;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.minecraft.world.GameRules;
 import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
 
 @Environment(EnvType.CLIENT)
 public class UnruledApiClient implements ClientModInitializer {
     public static final Identifier SCROLLBAR_VERTICAL = guiTexture("scrollbar_vertical");
     public static final Identifier SCROLLBAR_HORIZONTAL = guiTexture("scrollbar_horizontal");
 
+    /**
+     * Returns the gamerules holding the joined server's synced rule values,
+     * the other rules holding their default values, or {@code null} if none were received.
+     * @see UnruledApi#synced
+     */
+    public static GameRules getSyncedRules() {
+        return ClientRuleSync.getRules();
+    }
+
+    /**
+     * Returns the current view of the joined server's rule values, readable from any thread.
+     * Until the server's values are received, it holds the values cached from the last session on the same server,
+     * or the default values.
+     * @see UnruledApi#synced
+     */
+    public static ClientRulesView getRulesView() {
+        return ClientRuleSync.getView();
+    }
+
+    /**
+     * Declares interest in the provided synced gamerule, so that servers send its value to this client.
+     * <p>
+     * Clients declaring no interest receive every synced rule. Once any interest is declared, only the rules of
+     * interest are received, so every client mod reading synced rules should declare those it reads.
+     * Interests must be declared before joining a server, usually upon client initialization.
+     * @param key The synced rule's key.
+     * @return The provided key, for chaining.
+     * @param <T> The gamerule's type.
+     */
+    @Contract("_ -> param1")
+    @NotNull public static <T extends GameRules.Rule<T>> GameRules.Key<T> interest(GameRules.Key<T> key) {
+        ClientRuleSync.interest(key);
+        return key;
+    }
+
+    /**
+     * Declares interest in every synced gamerule of the provided category,
+     * the same categories in which gamerules visitors group the rules.
+     * @param category The category of interest.
+     * @see #interest(GameRules.Key)
+     */
+    public static void interest(GameRules.Category category) {
+        ClientRuleSync.interest(category);
+    }
+
     public static Identifier guiTexture(String fileName) {
         return Identifier.of(UnruledApi.MOD_ID, "textures/gui/" + UnruledApi.MOD_ID + "/" + fileName + ".png");
     }
 
     @Override
     public void onInitializeClient() {
+        if (!RuleSync.AVAILABLE) return;
+        ClientPlayNetworking.registerGlobalReceiver(RuleSyncPayload.ID, (payload, context) -> ClientRuleSync.receive(payload));
+        ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> {
+            ClientRuleSync.join(client);
+            if (ClientPlayNetworking.canSend(RuleInterestPayload.ID)) sender.sendPacket(ClientRuleSync.getInterest());
+        });
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> ClientRuleSync.clear());
     }
 }
@@ -1,8 +1,6 @@
 package mc.recraftors.unruled_api.impl;
 
-import java.util.Optional;
-
-public class BoundedDoubleRuleValidatorAdapter extends GameruleValidatorAdapter<Double> {
+public class BoundedDoubleRuleValidatorAdapter extends DoubleRuleValidatorAdapter {
     final double lower;
     final double upper;
 
@@ -13,14 +11,14 @@ public class BoundedDoubleRuleValidatorAdapter extends GameruleValidatorAdapter<
     }
 
     @Override
-    public Optional<Double> adapt(Double d) {
+    public double adapt(double d) {
         if (d < this.lower) d = this.lower;
         else if (d > this.upper) d = this.upper;
-        return Optional.of(d);
+        return d;
     }
 
     @Override
-    public boolean validate(Double d) {
+    public boolean validate(double d) {
         return this.lower <= d && d <= this.upper;
     }
 }
@@ -1,11 +1,8 @@
 package mc.recraftors.unruled_api.impl;
 
-import java.util.Optional;
-
-public class BoundedFloatRuleValidatorAdapter extends GameruleValidatorAdapter<Float> {
+public class BoundedFloatRuleValidatorAdapter extends FloatRuleValidatorAdapter {
     final float lower;
-    final float upper
-            ;
+    final float upper;
 
     public BoundedFloatRuleValidatorAdapter(float lower, float upper) {
         if (lower > upper) throw new IllegalArgumentException("Upper bound cannot be inferior to lower bound");
@@ -14,14 +11,14 @@ public class BoundedFloatRuleValidatorAdapter extends GameruleValidatorAdapter<F
     }
 
     @Override
-    public Optional<Float> adapt(Float f) {
+    public float adapt(float f) {
         if (f < this.lower) f = this.lower;
         else if (f > this.upper) f = this.upper;
-        return Optional.of(f);
+        return f;
     }
 
     @Override
-    public boolean validate(Float f) {
+    public boolean validate(float f) {
         return this.lower <= f && f <= this.upper;
     }
 }
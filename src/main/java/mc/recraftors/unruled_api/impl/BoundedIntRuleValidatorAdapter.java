@@ -1,8 +1,6 @@
 package mc.recraftors.unruled_api.impl;
 
-import java.util.Optional;
-
-public class BoundedIntRuleValidatorAdapter extends GameruleValidatorAdapter<Integer> {
+public class BoundedIntRuleValidatorAdapter extends IntRuleValidatorAdapter {
     final int lower;
     final int upper;
 
@@ -13,12 +11,12 @@ public class BoundedIntRuleValidatorAdapter extends GameruleValidatorAdapter<Int
     }
 
     @Override
-    public Optional<Integer> adapt(Integer integer) {
-        return Optional.of(Math.min(upper, Math.max(lower, integer)));
+    public int adapt(int i) {
+        return Math.min(upper, Math.max(lower, i));
     }
 
     @Override
-    public boolean validate(Integer integer) {
-        return lower <= integer && upper >= integer;
+    public boolean validate(int i) {
+        return lower <= i && upper >= i;
     }
 }
@@ -1,8 +1,6 @@
 package mc.recraftors.unruled_api.impl;
 
-import java.util.Optional;
-
-public class BoundedLongRuleValidatorAdapter extends GameruleValidatorAdapter<Long> {
+public class BoundedLongRuleValidatorAdapter extends LongRuleValidatorAdapter {
     final long lower;
     final long upper;
 
@@ -13,14 +11,14 @@ public class BoundedLongRuleValidatorAdapter extends GameruleValidatorAdapter<Lo
     }
 
     @Override
-    public Optional<Long> adapt(Long l) {
+    public long adapt(long l) {
         if (l > this.upper) l = this.upper;
         else if (l < this.lower) l = this.lower;
-        return Optional.of(l);
+        return l;
     }
 
     @Override
-    public boolean validate(Long l) {
+    public boolean validate(long l) {
         return this.lower <= l && l <= this.upper;
     }
 }
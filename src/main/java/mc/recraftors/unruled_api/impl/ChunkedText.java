@@ -0,0 +1,187 @@
+package mc.recraftors.unruled_api.impl;
+
+import net.minecraft.nbt.NbtByteArray;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtList;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Immutable large text value, held as individually compressed chunks with their content digests.
+ * <p>
+ * Instances are shared between rule copies, and building a new value from a previous one reuses the previous
+ * compressed chunks of identical content, returning the previous value itself if the whole content is identical.
+ * The decompressed text is cached softly, the garbage collector reclaiming it under memory pressure.
+ */
+public final class ChunkedText {
+    public static final int CHUNK_LENGTH = 4096;
+
+    private final byte[][] chunks;
+    private final byte[][] digests;
+    private final int length;
+    private SoftReference<String> cache;
+
+    private ChunkedText(byte[][] chunks, byte[][] digests, int length, String text) {
+        this.chunks = chunks;
+        this.digests = digests;
+        this.length = length;
+        this.cache = new SoftReference<>(text);
+    }
+
+    /**
+     * Builds the chunked value of the provided text, reusing the provided previous value's chunks where identical.
+     * @param text The text to store.
+     * @param previous The previous value, or {@code null} if none.
+     * @return The new value, or the previous one if of identical content.
+     */
+    public static ChunkedText of(String text, ChunkedText previous) {
+        List<byte[]> chunks = new ArrayList<>();
+        List<byte[]> digests = new ArrayList<>();
+        boolean same = previous != null && previous.length == text.length();
+        MessageDigest md = sha256();
+        for (int start = 0, i = 0; start < text.length(); i++) {
+            int end = chunkEnd(text, start);
+            byte[] utf8 = text.substring(start, end).getBytes(StandardCharsets.UTF_8);
+            byte[] digest = md.digest(utf8);
+            if (previous != null && i < previous.digests.length && MessageDigest.isEqual(previous.digests[i], digest)) {
+                chunks.add(previous.chunks[i]);
+                digests.add(previous.digests[i]);
+            } else {
+                chunks.add(deflate(utf8));
+                digests.add(digest);
+                same = false;
+            }
+            start = end;
+        }
+        if (same && chunks.size() == previous.chunks.length) return previous;
+        return new ChunkedText(chunks.toArray(new byte[0][]), digests.toArray(new byte[0][]), text.length(), text);
+    }
+
+    /**
+     * Rebuilds a value from its persisted compressed chunks.
+     * @throws IllegalArgumentException If a chunk is not valid compressed data.
+     */
+    public static ChunkedText fromChunks(byte[][] chunks) {
+        MessageDigest md = sha256();
+        byte[][] digests = new byte[chunks.length][];
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < chunks.length; i++) {
+            byte[] utf8 = inflate(chunks[i]);
+            digests[i] = md.digest(utf8);
+            builder.append(new String(utf8, StandardCharsets.UTF_8));
+        }
+        String text = builder.toString();
+        return new ChunkedText(chunks.clone(), digests, text.length(), text);
+    }
+
+    public int length() {
+        return this.length;
+    }
+
+    public int chunkCount() {
+        return this.chunks.length;
+    }
+
+    /**
+     * Returns the persisted form of this value, made of its length and copies of its compressed chunks.
+     */
+    public NbtCompound toNbt() {
+        NbtList chunks = new NbtList();
+        for (byte[] chunk : this.chunks) chunks.add(new NbtByteArray(chunk.clone()));
+        NbtCompound nbt = new NbtCompound();
+        nbt.putInt("length", this.length);
+        nbt.put("chunks", chunks);
+        return nbt;
+    }
+
+    /**
+     * Returns whether the provided element is the persisted form of a value.
+     */
+    public static boolean isChunked(NbtElement nbt) {
+        return nbt instanceof NbtCompound c && c.contains("chunks", NbtElement.LIST_TYPE);
+    }
+
+    /**
+     * Rebuilds a value from its persisted form.
+     * @throws IllegalArgumentException If a chunk is not valid compressed data.
+     */
+    public static ChunkedText fromNbt(NbtCompound nbt) {
+        NbtList list = nbt.getList("chunks", NbtElement.BYTE_ARRAY_TYPE);
+        byte[][] chunks = new byte[list.size()][];
+        for (int i = 0; i < chunks.length; i++) chunks[i] = ((NbtByteArray) list.get(i)).getByteArray().clone();
+        return fromChunks(chunks);
+    }
+
+    /**
+     * Returns the end of the chunk starting at the provided index, never splitting surrogate pairs.
+     */
+    private static int chunkEnd(String text, int start) {
+        int end = Math.min(text.length(), start + CHUNK_LENGTH);
+        if (end < text.length() && Character.isHighSurrogate(text.charAt(end - 1))) end--;
+        return end;
+    }
+
+    @Override
+    public String toString() {
+        String text = this.cache.get();
+        if (text != null) return text;
+        StringBuilder builder = new StringBuilder(this.length);
+        for (byte[] chunk : this.chunks) builder.append(new String(inflate(chunk), StandardCharsets.UTF_8));
+        text = builder.toString();
+        this.cache = new SoftReference<>(text);
+        return text;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2 + 16);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) out.write(buffer, 0, deflater.deflate(buffer));
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Truncated compressed text chunk");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Invalid compressed text chunk", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
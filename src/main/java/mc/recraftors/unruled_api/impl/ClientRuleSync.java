@@ -0,0 +1,214 @@
+package mc.recraftors.unruled_api.impl;
+
+import io.netty.buffer.Unpooled;
+import mc.recraftors.unruled_api.UnruledApi;
+import mc.recraftors.unruled_api.mixin.GameRuleInvoker;
+import mc.recraftors.unruled_api.utils.ClientRulesView;
+import mc.recraftors.unruled_api.utils.IRuleSlotsProvider;
+import mc.recraftors.unruled_api.utils.IValidatedRule;
+import mc.recraftors.unruled_api.utils.RuleHandle;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ServerInfo;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtSizeTracker;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.resource.featuretoggle.FeatureFlags;
+import net.minecraft.util.Util;
+import net.minecraft.world.GameRules;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Client side of the rules synchronization, holding the synced rule values of the joined server.
+ * <p>
+ * Only accessed from the client thread, except for the published {@link ClientRulesView}.
+ * The synced values are cached per server upon disconnection, and loaded back when joining the same server
+ * until its values are received.
+ * @see RuleSync
+ */
+@Environment(EnvType.CLIENT)
+public final class ClientRuleSync {
+    public static final String CACHE_DIRECTORY = UnruledApi.MOD_ID + "_cache";
+
+    private static final Set<String> INTEREST_RULES = new LinkedHashSet<>();
+    private static final Set<String> INTEREST_CATEGORIES = new LinkedHashSet<>();
+
+    private static GameRules rules;
+    /**
+     * Kind of each synced rule, in the server's declaration order, {@link RuleSync#NONE} for rules not received.
+     */
+    private static byte[] kinds = new byte[0];
+    /**
+     * Local slot of each synced rule, in the server's declaration order, {@code -1} for rules unknown to the client
+     * or not received.
+     */
+    private static int[] slots = new int[0];
+    private static volatile ClientRulesView view;
+    private static Path cacheFile;
+
+    private ClientRuleSync() {}
+
+    /**
+     * Returns the gamerules holding the joined server's synced rule values,
+     * the other rules holding their default values, or {@code null} if not received.
+     */
+    public static GameRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Returns the current view of the joined server's rule values, defaulted if none were received nor cached.
+     */
+    public static ClientRulesView getView() {
+        ClientRulesView v = view;
+        if (v == null) {
+            v = ClientRulesView.of(new GameRules(FeatureFlags.FEATURE_MANAGER.getFeatureSet()), false);
+            view = v;
+        }
+        return v;
+    }
+
+    /**
+     * Declares interest in the provided synced rule, to be received from the servers joined afterward.
+     */
+    public static synchronized void interest(GameRules.Key<?> key) {
+        INTEREST_RULES.add(key.getName());
+    }
+
+    /**
+     * Declares interest in every synced rule of the provided category, to be received from the servers joined afterward.
+     */
+    public static synchronized void interest(GameRules.Category category) {
+        INTEREST_CATEGORIES.add(category.name());
+    }
+
+    /**
+     * Returns the interest to declare upon joining a server, in every synced rule if none was declared.
+     * Names beyond the payload's limit are left out, as servers refuse them.
+     */
+    public static synchronized RuleInterestPayload getInterest() {
+        boolean all = INTEREST_RULES.isEmpty() && INTEREST_CATEGORIES.isEmpty();
+        List<String> rules = INTEREST_RULES.stream().limit(RuleInterestPayload.MAX_NAMES).toList();
+        return new RuleInterestPayload(all, rules, List.copyOf(INTEREST_CATEGORIES));
+    }
+
+    public static void receive(RuleSyncPayload payload) {
+        PacketByteBuf buf = new PacketByteBuf(Unpooled.wrappedBuffer(payload.data()));
+        if (payload.full()) {
+            int n = buf.readVarInt();
+            GameRules r = new GameRules(FeatureFlags.FEATURE_MANAGER.getFeatureSet());
+            byte[] k = new byte[n];
+            int[] s = new int[n];
+            Arrays.fill(s, -1);
+            int m = buf.readVarInt();
+            for (int j = 0; j < m; j++) {
+                int i = buf.readVarInt();
+                RuleHandle<?> handle = RuleSlots.get(buf.readString());
+                byte kind = buf.readByte();
+                Object value = RuleSync.readValue(buf, kind);
+                if (i < 0 || i >= n) continue;
+                k[i] = kind;
+                s[i] = handle == null ? -1 : handle.getSlot();
+                apply(r, s[i], k[i], value);
+            }
+            kinds = k;
+            slots = s;
+            rules = r;
+            view = ClientRulesView.of(r, true);
+            return;
+        }
+        if (rules == null || kinds.length == 0) return;
+        int n = buf.readVarInt();
+        BitSet changed = new BitSet();
+        for (int i = 0; i < n; i++) {
+            int index = buf.readVarInt();
+            if (index < 0 || index >= kinds.length || kinds[index] == RuleSync.NONE) break;
+            apply(rules, slots[index], kinds[index], RuleSync.readValue(buf, kinds[index]));
+            if (slots[index] >= 0) changed.set(slots[index]);
+        }
+        view = getView().with(rules, changed);
+    }
+
+    private static void apply(GameRules rules, int slot, byte kind, Object value) {
+        GameRules.Rule<?> rule = ((IRuleSlotsProvider) rules).unruled_getOwnedRule(slot);
+        if (rule != null) RuleSync.apply(rule, kind, value);
+    }
+
+    /**
+     * Loads the cached values of the joined server, if any and unless its values were already received.
+     */
+    public static void join(MinecraftClient client) {
+        ServerInfo info = client.getCurrentServerEntry();
+        cacheFile = info == null || !UnruledConfig.clientCache() ? null : cacheFile(info.address);
+        if (cacheFile == null || rules != null || !Files.isRegularFile(cacheFile)) return;
+        NbtCompound nbt;
+        try {
+            nbt = NbtIo.readCompressed(cacheFile, NbtSizeTracker.ofUnlimitedBytes());
+        } catch (IOException e) {
+            UnruledApi.LOGGER.warn("Failed to read cached gamerules {}", cacheFile, e);
+            return;
+        }
+        GameRules r = new GameRules(FeatureFlags.FEATURE_MANAGER.getFeatureSet());
+        for (String name : nbt.getKeys()) {
+            RuleHandle<?> handle = RuleSlots.get(name);
+            GameRules.Rule<?> rule = handle == null ? null : ((IRuleSlotsProvider) r).unruled_getOwnedRule(handle.getSlot());
+            if (rule == null || nbt.getType(name) != NbtElement.STRING_TYPE) continue;
+            if (rule instanceof IValidatedRule validated) validated.unruled_tryParse(nbt.getString(name));
+            else ((GameRuleInvoker) rule).invokeDeserialize(nbt.getString(name));
+        }
+        view = ClientRulesView.of(r, false);
+    }
+
+    private static Path cacheFile(String address) {
+        String name = address.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9._-]", "_");
+        return FabricLoader.getInstance().getGameDir().resolve(CACHE_DIRECTORY).resolve(name + ".dat");
+    }
+
+    /**
+     * Caches the synced values, then forgets them, upon disconnection.
+     */
+    public static void clear() {
+        if (rules != null && cacheFile != null) save(cacheFile);
+        rules = null;
+        kinds = new byte[0];
+        slots = new int[0];
+        view = null;
+        cacheFile = null;
+    }
+
+    /**
+     * Serializes the synced values on the client thread, then writes them in the background.
+     */
+    private static void save(Path file) {
+        GameRules.Rule<?>[] owned = ((IRuleSlotsProvider) rules).unruled_getRuleSlots();
+        NbtCompound nbt = new NbtCompound();
+        for (int slot : slots) {
+            if (slot < 0 || slot >= owned.length || owned[slot] == null) continue;
+            nbt.putString(RuleSlots.get(slot).getKey().getName(), owned[slot].serialize());
+        }
+        Util.getIoWorkerExecutor().execute(() -> {
+            try {
+                Files.createDirectories(file.getParent());
+                Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+                NbtIo.writeCompressed(nbt, tmp);
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                UnruledApi.LOGGER.warn("Failed to cache gamerules {}", file, e);
+            }
+        });
+    }
+}
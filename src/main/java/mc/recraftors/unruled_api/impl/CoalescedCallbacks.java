@@ -0,0 +1,64 @@
+package mc.recraftors.unruled_api.impl;
+
+import mc.recraftors.unruled_api.UnruledApi;
+import mc.recraftors.unruled_api.utils.CoalescedChangeCallback;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.GameRules;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Change callback recording rule writes, and running its {@link CoalescedChangeCallback}
+ * once per rule at the end of the server tick.
+ * @param <T> The gamerule's type.
+ */
+public final class CoalescedCallbacks<T extends GameRules.Rule<T>> implements BiConsumer<MinecraftServer, T> {
+    private static final List<CoalescedCallbacks<?>> DIRTY = new ArrayList<>();
+
+    private final CoalescedChangeCallback<T> callback;
+    private final Map<T, int[]> pending = new IdentityHashMap<>();
+
+    public CoalescedCallbacks(CoalescedChangeCallback<T> callback) {
+        this.callback = callback;
+    }
+
+    @Override
+    public void accept(MinecraftServer server, T rule) {
+        synchronized (DIRTY) {
+            if (this.pending.isEmpty()) DIRTY.add(this);
+            this.pending.computeIfAbsent(rule, r -> new int[1])[0]++;
+        }
+    }
+
+    private void flush(MinecraftServer server) {
+        List<Map.Entry<T, int[]>> entries;
+        synchronized (DIRTY) {
+            entries = new ArrayList<>(this.pending.entrySet());
+            this.pending.clear();
+        }
+        for (Map.Entry<T, int[]> entry : entries) {
+            try {
+                this.callback.onChanged(server, entry.getKey(), entry.getValue()[0]);
+            } catch (RuntimeException e) {
+                UnruledApi.LOGGER.error("Failed to run coalesced gamerule change callback", e);
+            }
+        }
+    }
+
+    /**
+     * Runs the pending coalesced callbacks, called at the end of every server tick.
+     */
+    public static void flushAll(MinecraftServer server) {
+        CoalescedCallbacks<?>[] dirty;
+        synchronized (DIRTY) {
+            if (DIRTY.isEmpty()) return;
+            dirty = DIRTY.toArray(new CoalescedCallbacks<?>[0]);
+            DIRTY.clear();
+        }
+        for (CoalescedCallbacks<?> callbacks : dirty) callbacks.flush(server);
+    }
+}
@@ -0,0 +1,7 @@
+package mc.recraftors.unruled_api.impl;
+
+import mc.recraftors.unruled_api.utils.DoubleRuleAdapter;
+import mc.recraftors.unruled_api.utils.DoubleRuleValidator;
+
+public abstract class DoubleRuleValidatorAdapter extends GameruleValidatorAdapter<Double> implements DoubleRuleValidator, DoubleRuleAdapter {
+}
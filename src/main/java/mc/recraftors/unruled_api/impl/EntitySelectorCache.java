@@ -0,0 +1,84 @@
+package mc.recraftors.unruled_api.impl;
+
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import mc.recraftors.unruled_api.utils.EncapsulatedException;
+import net.minecraft.command.EntitySelector;
+import net.minecraft.command.EntitySelectorReader;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of parsed entity selectors, keyed by their input string.
+ * <p>
+ * Parsed selectors are immutable, so that a single instance is shared by every rule of the same value.
+ * Parsing failures are cached as well, as rule edition widgets validate the input on every keystroke,
+ * but in a separate small cache, so that mistyped inputs never evict valid selectors.
+ * The cache size is read from {@link UnruledConfig#entitySelectorCacheSize()}.
+ */
+public final class EntitySelectorCache {
+    private static final int SIZE = UnruledConfig.entitySelectorCacheSize();
+    private static final int FAILURES_SIZE = Math.min(SIZE, 16);
+    private static final Map<String, Object> CACHE = lru(SIZE);
+    private static final Map<String, Object> FAILURES = lru(FAILURES_SIZE);
+
+    private EntitySelectorCache() {}
+
+    private static Map<String, Object> lru(int size) {
+        return new LinkedHashMap<>(16, .75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                return this.size() > size;
+            }
+        };
+    }
+
+    /**
+     * Parses the provided selector string, or returns its cached result.
+     * @throws EncapsulatedException Encapsulating the {@link CommandSyntaxException} if the input is invalid.
+     */
+    public static EntitySelector parse(String s) throws EncapsulatedException {
+        return toSelector(lookup(s));
+    }
+
+    /**
+     * Parses the provided selector string, or returns its cached result.
+     * @return The parsed selector, or {@code null} if the input is invalid.
+     */
+    public static EntitySelector tryParse(String s) {
+        return lookup(s) instanceof EntitySelector e ? e : null;
+    }
+
+    private static Object lookup(String s) {
+        if (SIZE == 0) return read(s);
+        Object o;
+        synchronized (CACHE) {
+            o = CACHE.get(s);
+            if (o == null) o = FAILURES.get(s);
+        }
+        if (o == null) {
+            o = read(s);
+            synchronized (CACHE) {
+                (o instanceof EntitySelector ? CACHE : FAILURES).put(s, o);
+            }
+        }
+        return o;
+    }
+
+    /**
+     * Parses the provided string, with selectors allowed, as rule values are only ever set by operators.
+     */
+    private static Object read(String s) {
+        try {
+            return new EntitySelectorReader(new StringReader(s), true).read();
+        } catch (CommandSyntaxException e) {
+            return e;
+        }
+    }
+
+    private static EntitySelector toSelector(Object o) {
+        if (o instanceof CommandSyntaxException e) throw new EncapsulatedException(e);
+        return (EntitySelector) o;
+    }
+}
@@ -0,0 +1,67 @@
+package mc.recraftors.unruled_api.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Per enum class constants table, computed once per class.
+ * <p>
+ * Holds the class' constants, their names and a name-to-constant lookup table,
+ * so that parsing and suggesting enum values neither allocates nor throws.
+ * @param <T> The enum type.
+ */
+public final class EnumTable<T extends Enum<T>> {
+    private static final ClassValue<EnumTable<?>> TABLES = new ClassValue<>() {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        @Override
+        protected EnumTable<?> computeValue(Class<?> type) {
+            return new EnumTable(type);
+        }
+    };
+
+    private final Class<T> type;
+    private final T[] constants;
+    private final List<String> names;
+    private final Map<String, Optional<T>> byName;
+
+    private EnumTable(Class<T> type) {
+        this.type = type;
+        this.constants = type.getEnumConstants();
+        this.names = Arrays.stream(this.constants).map(Enum::name).toList();
+        this.byName = new HashMap<>(this.constants.length * 2);
+        for (T t : this.constants) this.byName.put(t.name(), Optional.of(t));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T extends Enum<T>> EnumTable<T> of(Class<T> type) {
+        return (EnumTable<T>) TABLES.get(type);
+    }
+
+    public Class<T> getType() {
+        return this.type;
+    }
+
+    /**
+     * Returns the enum's constants. The returned array must not be modified.
+     */
+    public T[] constants() {
+        return this.constants;
+    }
+
+    /**
+     * Returns the unmodifiable list of the enum's constants names.
+     */
+    public List<String> names() {
+        return this.names;
+    }
+
+    /**
+     * Returns the constant of the provided name, or an empty optional if none matches.
+     */
+    public Optional<T> parse(String name) {
+        return this.byName.getOrDefault(name, Optional.empty());
+    }
+}
@@ -0,0 +1,7 @@
+package mc.recraftors.unruled_api.impl;
+
+import mc.recraftors.unruled_api.utils.FloatRuleAdapter;
+import mc.recraftors.unruled_api.utils.FloatRuleValidator;
+
+public abstract class FloatRuleValidatorAdapter extends GameruleValidatorAdapter<Float> implements FloatRuleValidator, FloatRuleAdapter {
+}
@@ -0,0 +1,7 @@
+package mc.recraftors.unruled_api.impl;
+
+import mc.recraftors.unruled_api.utils.IntRuleAdapter;
+import mc.recraftors.unruled_api.utils.IntRuleValidator;
+
+public abstract class IntRuleValidatorAdapter extends GameruleValidatorAdapter<Integer> implements IntRuleValidator, IntRuleAdapter {
+}
@@ -0,0 +1,7 @@
+package mc.recraftors.unruled_api.impl;
+
+import mc.recraftors.unruled_api.utils.LongRuleAdapter;
+import mc.recraftors.unruled_api.utils.LongRuleValidator;
+
+public abstract class LongRuleValidatorAdapter extends GameruleValidatorAdapter<Long> implements LongRuleValidator, LongRuleAdapter {
+}
@@ -0,0 +1,306 @@
+package mc.recraftors.unruled_api.impl;
+
+import mc.recraftors.unruled_api.UnruledApi;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Number parser reading values straight from character or byte regions, reporting failures through its return values
+ * rather than exceptions.
+ * <p>
+ * Accepted syntaxes are plain decimal notations, as well as {@code NaN} and {@code Infinity} for floating point
+ * numbers, i.e. everything {@link Double#toString(double)} may produce.
+ * <p>
+ * Parsers are confined to their thread, obtained through {@link #local()}, and hold the last parsed value.
+ * Integers, as well as floating point numbers of at most 18 significant digits whose value is exactly computed
+ * in floating point arithmetic, are parsed without any allocation. Other floating point numbers fall back to the
+ * JDK's correctly rounded parsing.
+ */
+public final class NumberParser {
+    private static final ThreadLocal<NumberParser> LOCAL = ThreadLocal.withInitial(NumberParser::new);
+    private static final Set<String> WARNED = ConcurrentHashMap.newKeySet();
+    private static final int MAX_DIGITS = 18;
+    private static final double[] DOUBLE_POWERS = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final float[] FLOAT_POWERS = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+
+    private final AsciiView view = new AsciiView();
+    private long longValue;
+    private double doubleValue;
+    private float floatValue;
+    // decimal scan state
+    private boolean negative;
+    private long mantissa;
+    private int exponent;
+    private boolean exact;
+    private int special;
+
+    private NumberParser() {}
+
+    /**
+     * Returns the current thread's parser.
+     */
+    public static NumberParser local() {
+        return LOCAL.get();
+    }
+
+    /**
+     * Returns whether the provided input is a valid {@code long}, in range.
+     */
+    public static boolean isLong(String s) {
+        return local().parseLong(s);
+    }
+
+    /**
+     * Returns whether the provided input is a valid {@code int}, in range.
+     */
+    public static boolean isInt(String s) {
+        return local().parseInt(s);
+    }
+
+    /**
+     * Returns whether the provided input is a valid decimal floating point number.
+     */
+    public static boolean isDecimal(String s) {
+        return s != null && local().scanDecimal(s, 0, s.length());
+    }
+
+    /**
+     * Logs the provided parsing failure, at most once per key.
+     * @param key The key of the failing value, usually a gamerule name.
+     * @param kind The expected kind of number.
+     * @param input The failing input.
+     */
+    public static void warnOnce(String key, String kind, CharSequence input) {
+        if (!WARNED.add(key)) return;
+        UnruledApi.LOGGER.warn("Failed to parse {} {} of {}, further failures of this key will not be logged", kind, input, key);
+    }
+
+    public long longValue() {
+        return this.longValue;
+    }
+
+    public int intValue() {
+        return (int) this.longValue;
+    }
+
+    public double doubleValue() {
+        return this.doubleValue;
+    }
+
+    public float floatValue() {
+        return this.floatValue;
+    }
+
+    public boolean parseLong(CharSequence s) {
+        return s != null && this.parseLong(s, 0, s.length());
+    }
+
+    /**
+     * Parses the provided region as a {@code long}, read through {@link #longValue()}.
+     * @return Whether the region is a valid {@code long}, in range.
+     */
+    public boolean parseLong(CharSequence s, int from, int to) {
+        if (from >= to) return false;
+        char c = s.charAt(from);
+        boolean neg = c == '-';
+        int i = neg || c == '+' ? from + 1 : from;
+        if (i == to) return false;
+        // accumulated negatively, as the negative range is the largest
+        long limit = neg ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long min = limit / 10;
+        long r = 0;
+        for (; i < to; i++) {
+            int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9 || r < min) return false;
+            r *= 10;
+            if (r < limit + d) return false;
+            r -= d;
+        }
+        this.longValue = neg ? r : -r;
+        return true;
+    }
+
+    public boolean parseLong(ByteBuffer buf, int from, int to) {
+        return this.parseLong(this.view.of(buf), from, to);
+    }
+
+    public boolean parseInt(CharSequence s) {
+        return s != null && this.parseInt(s, 0, s.length());
+    }
+
+    /**
+     * Parses the provided region as an {@code int}, read through {@link #intValue()}.
+     * @return Whether the region is a valid {@code int}, in range.
+     */
+    public boolean parseInt(CharSequence s, int from, int to) {
+        return this.parseLong(s, from, to) && this.longValue >= Integer.MIN_VALUE && this.longValue <= Integer.MAX_VALUE;
+    }
+
+    public boolean parseInt(ByteBuffer buf, int from, int to) {
+        return this.parseInt(this.view.of(buf), from, to);
+    }
+
+    public boolean parseDouble(CharSequence s) {
+        return s != null && this.parseDouble(s, 0, s.length());
+    }
+
+    /**
+     * Parses the provided region as a {@code double}, read through {@link #doubleValue()}.
+     * @return Whether the region is a valid decimal floating point number.
+     */
+    public boolean parseDouble(CharSequence s, int from, int to) {
+        if (!this.scanDecimal(s, from, to)) return false;
+        double d;
+        if (this.special != 0) {
+            d = this.special == 1 ? Double.NaN : Double.POSITIVE_INFINITY;
+        } else if (this.mantissa == 0) {
+            d = 0;
+        } else if (this.exact && this.mantissa < 1L << 53 && Math.abs(this.exponent) < DOUBLE_POWERS.length) {
+            d = this.exponent < 0 ? this.mantissa / DOUBLE_POWERS[-this.exponent] : this.mantissa * DOUBLE_POWERS[this.exponent];
+        } else {
+            this.doubleValue = Double.parseDouble(s.subSequence(from, to).toString());
+            return true;
+        }
+        this.doubleValue = this.negative ? -d : d;
+        return true;
+    }
+
+    public boolean parseDouble(ByteBuffer buf, int from, int to) {
+        return this.parseDouble(this.view.of(buf), from, to);
+    }
+
+    public boolean parseFloat(CharSequence s) {
+        return s != null && this.parseFloat(s, 0, s.length());
+    }
+
+    /**
+     * Parses the provided region as a {@code float}, read through {@link #floatValue()}.
+     * @return Whether the region is a valid decimal floating point number.
+     */
+    public boolean parseFloat(CharSequence s, int from, int to) {
+        if (!this.scanDecimal(s, from, to)) return false;
+        float f;
+        if (this.special != 0) {
+            f = this.special == 1 ? Float.NaN : Float.POSITIVE_INFINITY;
+        } else if (this.mantissa == 0) {
+            f = 0;
+        } else if (this.exact && this.mantissa < 1L << 24 && Math.abs(this.exponent) < FLOAT_POWERS.length) {
+            f = this.exponent < 0 ? this.mantissa / FLOAT_POWERS[-this.exponent] : this.mantissa * FLOAT_POWERS[this.exponent];
+        } else {
+            this.floatValue = Float.parseFloat(s.subSequence(from, to).toString());
+            return true;
+        }
+        this.floatValue = this.negative ? -f : f;
+        return true;
+    }
+
+    public boolean parseFloat(ByteBuffer buf, int from, int to) {
+        return this.parseFloat(this.view.of(buf), from, to);
+    }
+
+    /**
+     * Checks the syntax of the provided region, gathering its sign, significant digits and decimal exponent.
+     */
+    private boolean scanDecimal(CharSequence s, int from, int to) {
+        if (from >= to) return false;
+        char c = s.charAt(from);
+        this.negative = c == '-';
+        int i = this.negative || c == '+' ? from + 1 : from;
+        this.special = regionEquals(s, i, to, "NaN") ? 1 : regionEquals(s, i, to, "Infinity") ? 2 : 0;
+        if (this.special != 0) return true;
+        long m = 0;
+        int sig = 0;
+        int exp = 0;
+        int n = 0;
+        boolean exact = true;
+        boolean fraction = false;
+        for (; i < to; i++) {
+            c = s.charAt(i);
+            if (c == '.' && !fraction) {
+                fraction = true;
+                continue;
+            }
+            int d = c - '0';
+            if (d < 0 || d > 9) break;
+            n++;
+            if (sig < MAX_DIGITS && (m != 0 || d != 0)) {
+                m = m * 10 + d;
+                sig++;
+                if (fraction) exp--;
+            } else if (sig >= MAX_DIGITS) {
+                exact &= d == 0;
+                if (!fraction) exp++;
+            } else if (fraction) {
+                exp--; // leading zero of the fraction
+            }
+        }
+        if (n == 0) return false;
+        if (i < to && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            boolean negExp = i < to && s.charAt(i) == '-';
+            if (i < to && (negExp || s.charAt(i) == '+')) i++;
+            int e = 0;
+            int start = i;
+            for (; i < to; i++) {
+                int d = s.charAt(i) - '0';
+                if (d < 0 || d > 9) return false;
+                if (e < 100_000) e = e * 10 + d;
+            }
+            if (i == start) return false;
+            exp += negExp ? -e : e;
+        }
+        if (i != to) return false;
+        this.mantissa = m;
+        this.exponent = exp;
+        this.exact = exact;
+        return true;
+    }
+
+    private static boolean regionEquals(CharSequence s, int from, int to, String expected) {
+        if (to - from != expected.length()) return false;
+        for (int i = 0; i < expected.length(); i++) {
+            if (s.charAt(from + i) != expected.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reusable view of a byte buffer's ASCII content, indexed by absolute buffer positions.
+     */
+    private static final class AsciiView implements CharSequence {
+        private ByteBuffer buf;
+
+        private AsciiView of(ByteBuffer buf) {
+            this.buf = buf;
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return this.buf.limit();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (this.buf.get(index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            byte[] bytes = new byte[end - start];
+            this.buf.get(start, bytes);
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+
+        @Override
+        public String toString() {
+            return this.subSequence(0, this.length()).toString();
+        }
+    }
+}
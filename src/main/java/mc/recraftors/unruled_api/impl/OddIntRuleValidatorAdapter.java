@@ -1,8 +1,6 @@
 package mc.recraftors.unruled_api.impl;
 
-import java.util.Optional;
-
-public class OddIntRuleValidatorAdapter extends GameruleValidatorAdapter<Integer> {
+public class OddIntRuleValidatorAdapter extends IntRuleValidatorAdapter {
     final RoundingBehaviour rounding;
 
     public OddIntRuleValidatorAdapter(RoundingBehaviour rounding) {
@@ -10,22 +8,22 @@ public class OddIntRuleValidatorAdapter extends GameruleValidatorAdapter<Integer
     }
 
     @Override
-    public Optional<Integer> adapt(Integer i) {
+    public int adapt(int i) {
         return switch (this.rounding) {
-            case NONE -> Optional.empty();
+            case NONE -> i;
             case FLOOR -> {
-                if (i == Integer.MIN_VALUE) yield Optional.empty();
-                yield Optional.of(i - 1);
+                if (i == Integer.MIN_VALUE) yield i;
+                yield i - 1;
             }
             default -> {
-                if (i == Integer.MAX_VALUE) yield Optional.empty();
-                yield Optional.of(i + 1);
+                if (i == Integer.MAX_VALUE) yield i;
+                yield i + 1;
             }
         };
     }
 
     @Override
-    public boolean validate(Integer i) {
+    public boolean validate(int i) {
         return (i & 1) == 1;
     }
 }
@@ -0,0 +1,375 @@
+package mc.recraftors.unruled_api.impl;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import mc.recraftors.unruled_api.UnruledApi;
+import mc.recraftors.unruled_api.mixin.GameRuleInvoker;
+import mc.recraftors.unruled_api.utils.IRuleSlotsProvider;
+import mc.recraftors.unruled_api.utils.IValidatedRule;
+import mc.recraftors.unruled_api.utils.RuleHandle;
+import mc.recraftors.unruled_api.utils.ValidationResult;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.GameRules;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Local control endpoint, reading and writing rules in batches over a UNIX domain socket in the server directory.
+ * <p>
+ * Each batch is applied atomically at the end of the next server tick: every set is first validated, and unless all
+ * of them are accepted, none is applied. Accepted values go through the rules' validators and adapters, and notify
+ * the rules' changes as commands do. Gets are answered in order, after the batch's preceding sets.
+ * <p>
+ * Batches are written either as JSON lines, or in binary, a connection freely mixing both.
+ * A JSON batch is made of {@code {"op":"get","rule":"name"}} and {@code {"op":"set","rule":"name","value":"v"}}
+ * lines, ended by an empty line, and answered by a single {@code {"applied":bool,"results":[...]}} line, each result
+ * holding the rule's name, status and current value. A binary batch, big-endian, starts with a {@code 0} byte and an
+ * {@code int} request count, each request made of an op byte ({@code 0} get, {@code 1} set), the rule's name and, for
+ * sets, the value. It is answered by an applied byte, an {@code int} result count, then for each result a status byte
+ * and the rule's current value. Strings are {@code int}-prefixed UTF-8, statuses are {@link ValidationResult} ordinals,
+ * {@code -1} for unknown rules.
+ * <p>
+ * Unknown ops are refused: a JSON batch holding any is answered by an {@code {"error":...}} line,
+ * and a binary one closes the connection, as does an invalid batch size.
+ */
+public final class RuleControl {
+    public static final String SOCKET_NAME = UnruledApi.MOD_ID + ".sock";
+    public static final int MAX_BATCH_SIZE = 4096;
+    public static final int MAX_STRING_LENGTH = 1 << 20;
+
+    private static final Queue<Batch> PENDING = new ConcurrentLinkedQueue<>();
+    private static final long TIMEOUT_SECONDS = 30;
+    private static final byte BINARY = 0;
+    private static final byte GET = 0;
+    private static final byte SET = 1;
+
+    private static volatile RuleControl current;
+
+    private final ServerSocketChannel channel;
+    private final Path path;
+
+    private RuleControl(ServerSocketChannel channel, Path path) {
+        this.channel = channel;
+        this.path = path;
+    }
+
+    private record Request(boolean set, String rule, String value) {}
+
+    /**
+     * Outcome of a request.
+     * @param status The set's validation outcome, {@link ValidationResult#OK} for gets, {@code null} for unknown rules.
+     * @param value The rule's value once the request processed, {@code null} for unknown rules.
+     */
+    private record Result(String rule, ValidationResult status, String value) {}
+
+    private record Response(boolean applied, List<Result> results) {}
+
+    /**
+     * Pending batch, claimed exactly once, either by the server thread to apply it, or by its connection to abandon it.
+     */
+    private record Batch(List<Request> requests, CompletableFuture<Response> future, AtomicBoolean claimed) {
+        private Batch(List<Request> requests) {
+            this(requests, new CompletableFuture<>(), new AtomicBoolean());
+        }
+
+        private boolean claim() {
+            return this.claimed.compareAndSet(false, true);
+        }
+    }
+
+    /**
+     * Binds the control socket at the provided path, replacing any stale socket file, and starts accepting connections.
+     */
+    public static synchronized void open(Path path) {
+        close();
+        try {
+            Files.deleteIfExists(path);
+            ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            channel.bind(UnixDomainSocketAddress.of(path));
+            RuleControl control = new RuleControl(channel, path);
+            Thread t = new Thread(control::accept, "Unruled control");
+            t.setDaemon(true);
+            t.start();
+            current = control;
+        } catch (IOException | UnsupportedOperationException e) {
+            UnruledApi.LOGGER.error("Failed to open gamerules control socket {}", path, e);
+        }
+    }
+
+    /**
+     * Stops accepting connections, deletes the socket file and fails the pending batches.
+     */
+    public static synchronized void close() {
+        RuleControl control = current;
+        if (control == null) return;
+        current = null;
+        try {
+            control.channel.close();
+            Files.deleteIfExists(control.path);
+        } catch (IOException e) {
+            UnruledApi.LOGGER.error("Failed to close gamerules control socket", e);
+        }
+        Batch batch;
+        while ((batch = PENDING.poll()) != null) {
+            if (batch.claim()) batch.future().cancel(false);
+        }
+    }
+
+    /**
+     * Applies the pending batches, called at the end of every server tick.
+     */
+    public static void apply(MinecraftServer server) {
+        Batch batch;
+        while ((batch = PENDING.poll()) != null) {
+            if (!batch.claim() || batch.future().isDone()) continue;
+            try {
+                batch.future().complete(apply(server.getGameRules(), server, batch.requests()));
+            } catch (RuntimeException e) {
+                batch.future().completeExceptionally(e);
+            }
+        }
+    }
+
+    private static Response apply(GameRules rules, MinecraftServer server, List<Request> requests) {
+        IRuleSlotsProvider provider = (IRuleSlotsProvider) rules;
+        GameRules.Rule<?>[] resolved = new GameRules.Rule<?>[requests.size()];
+        ValidationResult[] statuses = new ValidationResult[requests.size()];
+        boolean accepted = true;
+        for (int i = 0; i < requests.size(); i++) {
+            Request request = requests.get(i);
+            RuleHandle<?> handle = RuleSlots.get(request.rule());
+            resolved[i] = handle == null ? null : provider.unruled_getOwnedRule(handle.getSlot());
+            if (resolved[i] == null) {
+                accepted &= !request.set();
+            } else if (!request.set()) {
+                statuses[i] = ValidationResult.OK;
+            } else {
+                statuses[i] = resolved[i] instanceof IValidatedRule v ? v.unruled_tryValidate(request.value()) : check(resolved[i], request.value());
+                accepted &= statuses[i].isAccepted();
+                RuleMetrics.recordResult(handle.getSlot(), statuses[i]);
+            }
+        }
+        List<Result> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            Request request = requests.get(i);
+            GameRules.Rule<?> rule = resolved[i];
+            if (rule == null) {
+                results.add(new Result(request.rule(), null, null));
+                continue;
+            }
+            if (accepted && request.set()) {
+                if (rule instanceof IValidatedRule v) statuses[i] = v.unruled_tryParse(request.value());
+                else ((GameRuleInvoker) rule).invokeDeserialize(request.value());
+                ((GameRuleInvoker) rule).invokeChanged(server);
+            }
+            results.add(new Result(request.rule(), statuses[i], rule.serialize()));
+        }
+        return new Response(accepted, results);
+    }
+
+    /**
+     * Checks the provided input for a rule without validation support, such rules silently falling back to a default
+     * value upon unparseable inputs. The input must thus be read back unchanged by a copy of the rule.
+     */
+    private static ValidationResult check(GameRules.Rule<?> rule, String value) {
+        if (rule instanceof GameRules.BooleanRule) {
+            return "true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value) ? ValidationResult.OK : ValidationResult.UNPARSEABLE;
+        }
+        GameRules.Rule<?> probe = ((GameRuleInvoker) rule).invokeCopy();
+        ((GameRuleInvoker) probe).invokeDeserialize(value);
+        return probe.serialize().equals(value) ? ValidationResult.OK : ValidationResult.UNPARSEABLE;
+    }
+
+    private void accept() {
+        while (this.channel.isOpen()) {
+            try {
+                SocketChannel client = this.channel.accept();
+                Thread t = new Thread(() -> serve(client), "Unruled control connection");
+                t.setDaemon(true);
+                t.start();
+            } catch (IOException e) {
+                if (this.channel.isOpen()) UnruledApi.LOGGER.warn("Failed to accept gamerules control connection", e);
+            }
+        }
+    }
+
+    private static void serve(SocketChannel client) {
+        try (client) {
+            InputStream in = new BufferedInputStream(Channels.newInputStream(client));
+            OutputStream out = Channels.newOutputStream(client);
+            while (true) {
+                in.mark(1);
+                int first = in.read();
+                if (first < 0) return;
+                if (first == BINARY) {
+                    serveBinary(new DataInputStream(in), out);
+                } else {
+                    in.reset();
+                    if (!serveJson(in, out)) return;
+                }
+            }
+        } catch (EOFException e) {
+            // connection closed mid-batch
+        } catch (IOException e) {
+            UnruledApi.LOGGER.warn("Gamerules control connection failed", e);
+        }
+    }
+
+    private static void serveBinary(DataInputStream in, OutputStream out) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > MAX_BATCH_SIZE) throw new IOException("Invalid batch size " + count);
+        List<Request> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte op = in.readByte();
+            if (op != GET && op != SET) throw new IOException("Invalid op " + op);
+            boolean set = op == SET;
+            String rule = readString(in);
+            requests.add(new Request(set, rule, set ? readString(in) : null));
+        }
+        Response response = submit(requests);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeBoolean(response.applied());
+        data.writeInt(response.results().size());
+        for (Result result : response.results()) {
+            data.writeByte(result.status() == null ? -1 : result.status().ordinal());
+            writeString(data, result.value() == null ? "" : result.value());
+        }
+        bytes.writeTo(out);
+        out.flush();
+    }
+
+    /**
+     * Serves a JSON batch.
+     * @return Whether the connection is still open.
+     */
+    private static boolean serveJson(InputStream in, OutputStream out) throws IOException {
+        List<Request> requests = new ArrayList<>();
+        String error = null;
+        String line;
+        while ((line = readLine(in)) != null && !line.isBlank()) {
+            if (error != null) continue;
+            try {
+                JsonObject o = JsonParser.parseString(line).getAsJsonObject();
+                String op = o.get("op").getAsString();
+                if (!"get".equals(op) && !"set".equals(op)) throw new JsonParseException("Unknown op " + op);
+                boolean set = "set".equals(op);
+                JsonElement value = o.get("value");
+                if (set && value == null) throw new JsonParseException("Missing value");
+                requests.add(new Request(set, o.get("rule").getAsString(), set ? value.getAsString() : null));
+                if (requests.size() > MAX_BATCH_SIZE) error = "Batch too large";
+            } catch (RuntimeException e) {
+                error = "Invalid request: " + line;
+            }
+        }
+        JsonObject response = new JsonObject();
+        if (error != null) {
+            response.addProperty("error", error);
+        } else if (!requests.isEmpty()) {
+            Response r = submit(requests);
+            JsonArray results = new JsonArray();
+            for (Result result : r.results()) {
+                JsonObject o = new JsonObject();
+                o.addProperty("rule", result.rule());
+                o.addProperty("status", result.status() == null ? "UNKNOWN" : result.status().name());
+                if (result.value() != null) o.addProperty("value", result.value());
+                results.add(o);
+            }
+            response.addProperty("applied", r.applied());
+            response.add("results", results);
+        }
+        if (error != null || !requests.isEmpty()) {
+            out.write((response + "\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+        return line != null;
+    }
+
+    /**
+     * Queues the provided batch for the next tick, and awaits its response.
+     * A batch not applied in time is abandoned, so that it is never applied after its connection gave up on it.
+     */
+    private static Response submit(List<Request> requests) throws IOException {
+        Batch batch = new Batch(List.copyOf(requests));
+        PENDING.add(batch);
+        if (current == null) abandon(batch);
+        try {
+            try {
+                return batch.future().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                if (abandon(batch)) throw new IOException("Batch not applied in time", e);
+                return batch.future().get(); // being applied by the server thread
+            }
+        } catch (InterruptedException e) {
+            abandon(batch);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while awaiting the batch", e);
+        } catch (ExecutionException | CancellationException e) {
+            throw new IOException("Batch not applied", e);
+        }
+    }
+
+    /**
+     * Removes and cancels the provided batch, unless already claimed by the server thread.
+     * @return Whether the batch was abandoned.
+     */
+    private static boolean abandon(Batch batch) {
+        if (!batch.claim()) return false;
+        PENDING.remove(batch);
+        batch.future().cancel(false);
+        return true;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) >= 0 && b != '\n') {
+            if (line.size() >= MAX_STRING_LENGTH) throw new IOException("Line too long");
+            line.write(b);
+        }
+        if (b < 0 && line.size() == 0) return null;
+        return line.toString(StandardCharsets.UTF_8).stripTrailing();
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_STRING_LENGTH) throw new IOException("Invalid string length " + length);
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length < length) throw new EOFException();
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,112 @@
+package mc.recraftors.unruled_api.impl;
+
+import mc.recraftors.unruled_api.UnruledApi;
+import mc.recraftors.unruled_api.utils.ChangeSource;
+import mc.recraftors.unruled_api.utils.GameRulesSnapshot;
+import mc.recraftors.unruled_api.utils.IRuleSlot;
+import mc.recraftors.unruled_api.utils.RuleChangeListener;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.GameRules;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Per-rule change event bus, indexed by the rules' slots.
+ * <p>
+ * Listener arrays are copied on write, so that dispatching neither locks nor allocates,
+ * and rules without listeners are skipped with a single array check.
+ * Subscribing starts tracking the {@link RuleSnapshots snapshots}, which provide the listeners' previous values.
+ */
+public final class RuleEvents {
+    private static final RuleChangeListener<?>[] EMPTY = new RuleChangeListener<?>[0];
+    private static final ThreadLocal<ChangeSource> SOURCE = ThreadLocal.withInitial(() -> ChangeSource.OTHER);
+
+    private static volatile RuleChangeListener<?>[][] bySlot = new RuleChangeListener<?>[0][];
+
+    private RuleEvents() {}
+
+    private static int slotOf(GameRules.Key<?> key) {
+        int slot = ((IRuleSlot) key).unruled_getSlot();
+        if (slot < 0) throw new IllegalArgumentException("Unregistered gamerule key " + key);
+        return slot;
+    }
+
+    public static synchronized void subscribe(GameRules.Key<?> key, RuleChangeListener<?> listener) {
+        int slot = slotOf(key);
+        RuleChangeListener<?>[][] a = bySlot;
+        a = slot >= a.length ? Arrays.copyOf(a, slot + 1) : a.clone();
+        RuleChangeListener<?>[] b = a[slot] == null ? EMPTY : a[slot];
+        b = Arrays.copyOf(b, b.length + 1);
+        b[b.length - 1] = listener;
+        a[slot] = b;
+        bySlot = a;
+        RuleSnapshots.track();
+    }
+
+    public static synchronized boolean unsubscribe(GameRules.Key<?> key, RuleChangeListener<?> listener) {
+        int slot = slotOf(key);
+        RuleChangeListener<?>[][] a = bySlot;
+        if (slot >= a.length || a[slot] == null) return false;
+        RuleChangeListener<?>[] b = a[slot];
+        for (int i = 0; i < b.length; i++) {
+            if (b[i] != listener) continue;
+            RuleChangeListener<?>[] c = new RuleChangeListener<?>[b.length - 1];
+            System.arraycopy(b, 0, c, 0, i);
+            System.arraycopy(b, i + 1, c, i, b.length - i - 1);
+            a = a.clone();
+            a[slot] = c.length == 0 ? null : c;
+            bySlot = a;
+            return true;
+        }
+        return false;
+    }
+
+    public static boolean hasListeners(int slot) {
+        RuleChangeListener<?>[][] a = bySlot;
+        return slot >= 0 && slot < a.length && a[slot] != null;
+    }
+
+    /**
+     * Returns the source of the changes currently caused on this thread.
+     */
+    public static ChangeSource currentSource() {
+        return SOURCE.get();
+    }
+
+    /**
+     * Runs the provided action with the provided change source attributed to the changes it causes on this thread.
+     */
+    public static <T> T runAs(ChangeSource source, Supplier<T> action) {
+        ChangeSource previous = SOURCE.get();
+        SOURCE.set(source);
+        try {
+            return action.get();
+        } finally {
+            SOURCE.set(previous);
+        }
+    }
+
+    /**
+     * Dispatches the change of the provided server rule to its listeners, if any.
+     * @param previous The snapshot preceding the change.
+     * @param current The snapshot holding the change.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static void dispatch(MinecraftServer server, int slot, GameRulesSnapshot previous, GameRulesSnapshot current) {
+        RuleChangeListener<?>[][] a = bySlot;
+        if (slot < 0 || slot >= a.length) return;
+        RuleChangeListener<?>[] listeners = a[slot];
+        if (listeners == null) return;
+        Object oldValue = previous.get(slot);
+        Object newValue = current.get(slot);
+        ChangeSource source = SOURCE.get();
+        for (RuleChangeListener listener : listeners) {
+            try {
+                listener.onChanged(server, oldValue, newValue, source);
+            } catch (RuntimeException e) {
+                UnruledApi.LOGGER.error("Gamerule change listener failed", e);
+            }
+        }
+    }
+}
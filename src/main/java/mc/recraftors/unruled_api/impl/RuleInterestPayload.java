@@ -0,0 +1,51 @@
+package mc.recraftors.unruled_api.impl;
+
+import io.netty.handler.codec.DecoderException;
+import mc.recraftors.unruled_api.UnruledApi;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.util.Identifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Client to server payload of the synced rules a client is interested in, sent once upon joining.
+ * <p>
+ * Decoding refuses more than {@link #MAX_NAMES} rule or category names, a fixed protocol limit independent of the
+ * rules registered on either side, so that clients can't have the server allocate arbitrarily large lists.
+ * Names unknown to the server are ignored upon subscription.
+ * @param all Whether the client is interested in every synced rule, the lists being then ignored.
+ * @param rules The names of the rules of interest.
+ * @param categories The names of the categories of interest, every rule of which is of interest.
+ */
+public record RuleInterestPayload(boolean all, List<String> rules, List<String> categories) implements CustomPayload {
+    public static final Id<RuleInterestPayload> ID = new Id<>(Identifier.of(UnruledApi.MOD_ID, "rule_interest"));
+    public static final PacketCodec<PacketByteBuf, RuleInterestPayload> CODEC = CustomPayload.codecOf(RuleInterestPayload::write, RuleInterestPayload::new);
+    public static final int MAX_NAME_LENGTH = 256;
+    public static final int MAX_NAMES = 4096;
+
+    private RuleInterestPayload(PacketByteBuf buf) {
+        this(buf.readBoolean(), readNames(buf, MAX_NAMES), readNames(buf, MAX_NAMES));
+    }
+
+    private static List<String> readNames(PacketByteBuf buf, int max) {
+        int count = buf.readVarInt();
+        if (count < 0 || count > max) throw new DecoderException("Declared " + count + " names of interest, at most " + max + " allowed");
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) names.add(buf.readString(MAX_NAME_LENGTH));
+        return names;
+    }
+
+    private void write(PacketByteBuf buf) {
+        buf.writeBoolean(this.all);
+        buf.writeCollection(this.rules, (b, s) -> b.writeString(s, MAX_NAME_LENGTH));
+        buf.writeCollection(this.categories, (b, s) -> b.writeString(s, MAX_NAME_LENGTH));
+    }
+
+    @Override
+    public Id<? extends CustomPayload> getId() {
+        return ID;
+    }
+}
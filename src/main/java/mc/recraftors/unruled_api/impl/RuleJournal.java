@@ -0,0 +1,243 @@
+package mc.recraftors.unruled_api.impl;
+
+import mc.recraftors.unruled_api.UnruledApi;
+import mc.recraftors.unruled_api.utils.ChangeSource;
+import mc.recraftors.unruled_api.utils.IDeltaRule;
+import mc.recraftors.unruled_api.utils.IRuleSlotsProvider;
+import mc.recraftors.unruled_api.utils.IValidatedRule;
+import net.minecraft.world.GameRules;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only memory-mapped journal of the Unruled rules changes, replayed upon world loading.
+ * <p>
+ * Appending only hands the change to the journal's writer thread, which encodes it and copies it into the mapped file,
+ * growing it if needed, and leaves the writing to the operating system,
+ * so that changes survive process crashes without blocking the server thread.
+ * <p>
+ * File format, big-endian: an 8 bytes header made of the {@code UJRN} magic number, a {@code short} format version
+ * and 2 reserved bytes, followed by records. Each record is made of an {@code int} body length, an {@code int} CRC32
+ * of the body, and the body: {@code long} change time in epoch milliseconds, {@code byte} {@link ChangeSource} ordinal,
+ * {@code short}-prefixed UTF-8 rule name, and {@code int}-prefixed UTF-8 serialized value.
+ * A zero length ends the journal. The length is written last, so that torn records are ignored.
+ */
+public final class RuleJournal {
+    public static final String FILE_NAME = UnruledApi.MOD_ID + "_journal.bin";
+    public static final short VERSION = 1;
+
+    private static final int MAGIC = 0x554A524E;
+    private static final int HEADER_SIZE = 8;
+
+    private static volatile RuleJournal current;
+
+    private final FileChannel channel;
+    private final ExecutorService writer;
+    private MappedByteBuffer buffer;
+    private int position = HEADER_SIZE;
+
+    private RuleJournal(FileChannel channel, int size) throws IOException {
+        this.channel = channel;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, channel.size()));
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "Unruled journal");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private record Entry(long time, byte source, String value) {}
+
+    /**
+     * Opens the provided journal file and replays it over the provided gamerules.
+     * <p>
+     * The replayed records are kept, and new ones appended after them, until the next successful save
+     * {@link #reset() empties} the journal, so that a crash before then doesn't lose them.
+     */
+    public static synchronized void open(GameRules rules, Path file) {
+        close();
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            RuleJournal journal = new RuleJournal(channel, Math.max(HEADER_SIZE + 4, UnruledConfig.journalSize()));
+            Map<String, Entry> entries = journal.read();
+            replay(rules, entries);
+            current = journal;
+        } catch (IOException e) {
+            UnruledApi.LOGGER.error("Failed to open gamerules journal {}", file, e);
+        }
+    }
+
+    /**
+     * Returns whether the provided journal file holds changes not replayed yet, which would override the level data.
+     */
+    public static boolean hasRecords(Path file) throws IOException {
+        if (!Files.exists(file)) return false;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer b = ByteBuffer.allocate(HEADER_SIZE + 4);
+            if (channel.read(b, 0) < b.capacity()) return false;
+            return b.getInt(0) == MAGIC && b.getShort(4) == VERSION && b.getInt(HEADER_SIZE) > 0;
+        }
+    }
+
+    /**
+     * Writes the pending changes, forces the journal to storage and closes it, if open.
+     */
+    public static synchronized void close() {
+        RuleJournal journal = current;
+        if (journal == null) return;
+        current = null;
+        journal.writer.shutdown();
+        try {
+            if (!journal.writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                UnruledApi.LOGGER.warn("Timed out writing pending gamerules journal records");
+            }
+            journal.buffer.force();
+            journal.channel.close();
+        } catch (IOException e) {
+            UnruledApi.LOGGER.error("Failed to close gamerules journal", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns whether a journal is open.
+     */
+    public static boolean isOpen() {
+        return current != null;
+    }
+
+    /**
+     * Appends the provided change to the open journal, if any.
+     */
+    public static void append(String name, String value, ChangeSource source) {
+        RuleJournal journal = current;
+        if (journal == null) return;
+        long time = System.currentTimeMillis();
+        byte ordinal = (byte) source.ordinal();
+        journal.submit(() -> journal.write(time, ordinal, name, value));
+    }
+
+    /**
+     * Empties the open journal, if any, once its changes were persisted.
+     */
+    public static void reset() {
+        RuleJournal journal = current;
+        if (journal == null) return;
+        journal.submit(journal::clear);
+    }
+
+    /**
+     * Runs the provided task on the journal's writer thread, in submission order,
+     * unless the journal is being closed.
+     */
+    private void submit(Runnable task) {
+        try {
+            this.writer.execute(task);
+        } catch (RejectedExecutionException ignored) {
+            // The change is persisted along with the level data upon closing
+        }
+    }
+
+    private Map<String, Entry> read() {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        ByteBuffer b = this.buffer.duplicate();
+        if (b.getInt(0) != MAGIC) {
+            this.clear();
+            return entries;
+        }
+        short version = b.getShort(4);
+        if (version != VERSION) {
+            UnruledApi.LOGGER.warn("Unsupported gamerules journal version {}, discarding it", version);
+            this.clear();
+            return entries;
+        }
+        b.position(HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        while (b.remaining() >= 8) {
+            int length = b.getInt();
+            if (length <= 0 || length > b.remaining() - 4) break;
+            int checksum = b.getInt();
+            byte[] body = new byte[length];
+            b.get(body);
+            crc.reset();
+            crc.update(body);
+            if ((int) crc.getValue() != checksum) break;
+            ByteBuffer r = ByteBuffer.wrap(body);
+            long time = r.getLong();
+            byte source = r.get();
+            byte[] name = new byte[r.getShort() & 0xFFFF];
+            r.get(name);
+            byte[] value = new byte[r.getInt()];
+            r.get(value);
+            String key = new String(name, StandardCharsets.UTF_8);
+            entries.remove(key);
+            entries.put(key, new Entry(time, source, new String(value, StandardCharsets.UTF_8)));
+            this.position = b.position();
+        }
+        return entries;
+    }
+
+    private static void replay(GameRules rules, Map<String, Entry> entries) {
+        if (entries.isEmpty()) return;
+        GameRules.Rule<?>[] slots = ((IRuleSlotsProvider) rules).unruled_getOwnedRuleSlots();
+        int n = 0;
+        for (int i = 0; i < slots.length; i++) {
+            if (!(slots[i] instanceof IDeltaRule) || !(slots[i] instanceof IValidatedRule rule)) continue;
+            Entry entry = entries.get(RuleSlots.get(i).getKey().getName());
+            if (entry == null) continue;
+            rule.unruled_tryParse(entry.value());
+            n++;
+        }
+        UnruledApi.LOGGER.info("Replayed {} gamerule changes from journal", n);
+    }
+
+    private void clear() {
+        this.buffer.putInt(0, MAGIC);
+        this.buffer.putShort(4, VERSION);
+        this.buffer.putShort(6, (short) 0);
+        this.position = HEADER_SIZE;
+        this.buffer.putInt(HEADER_SIZE, 0);
+    }
+
+    private void write(long time, byte source, String name, String value) {
+        byte[] n = name.getBytes(StandardCharsets.UTF_8);
+        byte[] v = value.getBytes(StandardCharsets.UTF_8);
+        int length = 8 + 1 + 2 + n.length + 4 + v.length;
+        if (!this.ensureCapacity(this.position + 8 + length + 4)) return;
+        ByteBuffer body = ByteBuffer.allocate(length);
+        body.putLong(time).put(source).putShort((short) n.length).put(n).putInt(v.length).put(v);
+        CRC32 crc = new CRC32();
+        crc.update(body.array());
+        this.buffer.put(this.position + 8, body.array());
+        this.buffer.putInt(this.position + 4, (int) crc.getValue());
+        this.buffer.putInt(this.position + 8 + length, 0);
+        this.buffer.putInt(this.position, length);
+        this.position += 8 + length;
+    }
+
+    private boolean ensureCapacity(int size) {
+        if (size <= this.buffer.capacity()) return true;
+        try {
+            this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, this.buffer.capacity() * 2L));
+            return true;
+        } catch (IOException e) {
+            UnruledApi.LOGGER.error("Failed to grow gamerules journal", e);
+            return false;
+        }
+    }
+}
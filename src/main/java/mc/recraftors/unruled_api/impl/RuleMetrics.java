@@ -0,0 +1,188 @@
+package mc.recraftors.unruled_api.impl;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import mc.recraftors.unruled_api.UnruledApi;
+import mc.recraftors.unruled_api.utils.GameRulesSnapshot;
+import mc.recraftors.unruled_api.utils.ValidationResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Local HTTP endpoint exposing the running server's rule values and rule change activity in the Prometheus text format.
+ * <p>
+ * Integer, long, float and double rules are exposed as {@code unruled_rule_value} gauges, enum rules as
+ * {@code unruled_rule_info} info metrics labeled with their value, and the applied changes, adapted inputs and
+ * refused inputs of every rule as {@code unruled_rule_sets_total}, {@code unruled_rule_adaptations_total} and
+ * {@code unruled_rule_rejections_total} counters.
+ * <p>
+ * Responses are served from a cached buffer, only rebuilt from the current {@link GameRulesSnapshot} once a rule
+ * or counter changed.
+ */
+public final class RuleMetrics {
+    public static final String PATH = "/metrics";
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    private static volatile RuleMetrics current;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicLongArray sets;
+    private final AtomicLongArray adaptations;
+    private final AtomicLongArray rejections;
+    private byte[] cached = new byte[0];
+    private long cachedVersion = -1;
+    private long cachedGeneration = -1;
+
+    private RuleMetrics(HttpServer server, ExecutorService executor, int size) {
+        this.server = server;
+        this.executor = executor;
+        this.sets = new AtomicLongArray(size);
+        this.adaptations = new AtomicLongArray(size);
+        this.rejections = new AtomicLongArray(size);
+    }
+
+    /**
+     * Starts serving the metrics on the provided port of the loopback address.
+     */
+    public static synchronized void open(int port) {
+        close();
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "Unruled metrics");
+                t.setDaemon(true);
+                return t;
+            });
+            RuleMetrics metrics = new RuleMetrics(server, executor, RuleSlots.count());
+            server.createContext(PATH, metrics::handle);
+            server.setExecutor(executor);
+            server.start();
+            current = metrics;
+        } catch (IOException e) {
+            UnruledApi.LOGGER.error("Failed to open gamerules metrics endpoint on port {}", port, e);
+        }
+    }
+
+    public static synchronized void close() {
+        RuleMetrics metrics = current;
+        if (metrics == null) return;
+        current = null;
+        metrics.server.stop(0);
+        metrics.executor.shutdown();
+    }
+
+    /**
+     * Returns whether the metrics endpoint is open.
+     */
+    public static boolean isOpen() {
+        return current != null;
+    }
+
+    /**
+     * Counts an applied change of the rule of the provided slot.
+     */
+    public static void recordSet(int slot) {
+        RuleMetrics metrics = current;
+        if (metrics == null || slot < 0 || slot >= metrics.sets.length()) return;
+        metrics.sets.incrementAndGet(slot);
+        GENERATION.incrementAndGet();
+    }
+
+    /**
+     * Counts the provided input validation outcome of the rule of the provided slot, if adapted or refused.
+     */
+    public static void recordResult(int slot, ValidationResult result) {
+        RuleMetrics metrics = current;
+        if (metrics == null || slot < 0 || slot >= metrics.sets.length() || result == ValidationResult.OK) return;
+        (result == ValidationResult.ADAPTED ? metrics.adaptations : metrics.rejections).incrementAndGet(slot);
+        GENERATION.incrementAndGet();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = this.render();
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * Returns the cached response, rebuilt first if stale. Only called from the endpoint's single thread.
+     */
+    private byte[] render() {
+        GameRulesSnapshot snapshot = RuleSnapshots.current();
+        long generation = GENERATION.get();
+        if (snapshot.getVersion() == this.cachedVersion && generation == this.cachedGeneration) return this.cached;
+        StringBuilder gauges = new StringBuilder("# TYPE unruled_rule_value gauge\n");
+        StringBuilder infos = new StringBuilder("# TYPE unruled_rule_info gauge\n");
+        for (int i = 0; i < snapshot.size(); i++) {
+            Object value = snapshot.get(i);
+            if (value instanceof Number n) {
+                sample(gauges, "unruled_rule_value", i, null).append(format(n)).append('\n');
+            } else if (value instanceof Enum<?> e) {
+                sample(infos, "unruled_rule_info", i, e.name()).append("1\n");
+            }
+        }
+        StringBuilder out = new StringBuilder(gauges.length() + infos.length() + 1024).append(gauges).append(infos);
+        counter(out, "unruled_rule_sets_total", this.sets);
+        counter(out, "unruled_rule_adaptations_total", this.adaptations);
+        counter(out, "unruled_rule_rejections_total", this.rejections);
+        this.cached = out.toString().getBytes(StandardCharsets.UTF_8);
+        this.cachedVersion = snapshot.getVersion();
+        this.cachedGeneration = generation;
+        return this.cached;
+    }
+
+    private static void counter(StringBuilder out, String name, AtomicLongArray counts) {
+        out.append("# TYPE ").append(name).append(" counter\n");
+        for (int i = 0; i < counts.length(); i++) {
+            long count = counts.get(i);
+            if (count != 0) sample(out, name, i, null).append(count).append('\n');
+        }
+    }
+
+    private static StringBuilder sample(StringBuilder out, String name, int slot, String value) {
+        out.append(name).append("{rule=\"");
+        escape(out, RuleSlots.get(slot).getKey().getName());
+        if (value != null) {
+            out.append("\",value=\"");
+            escape(out, value);
+        }
+        return out.append("\"} ");
+    }
+
+    private static void escape(StringBuilder out, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\' || c == '"') out.append('\\').append(c);
+            else if (c == '\n') out.append("\\n");
+            else out.append(c);
+        }
+    }
+
+    private static String format(Number n) {
+        if (n instanceof Integer || n instanceof Long) return n.toString();
+        double d = n.doubleValue();
+        if (Double.isNaN(d)) return "NaN";
+        if (Double.isInfinite(d)) return d > 0 ? "+Inf" : "-Inf";
+        return n.toString();
+    }
+}
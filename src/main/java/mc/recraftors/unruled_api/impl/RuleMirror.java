@@ -0,0 +1,185 @@
+package mc.recraftors.unruled_api.impl;
+
+import mc.recraftors.unruled_api.UnruledApi;
+import mc.recraftors.unruled_api.rules.DoubleRule;
+import mc.recraftors.unruled_api.rules.EnumRule;
+import mc.recraftors.unruled_api.rules.FloatRule;
+import mc.recraftors.unruled_api.rules.LongRule;
+import mc.recraftors.unruled_api.utils.IRuleSlotsProvider;
+import mc.recraftors.unruled_api.utils.RuleMirrorReader;
+import mc.recraftors.unruled_api.utils.RuleMirrorReader.Kind;
+import net.minecraft.world.GameRules;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Memory-mapped mirror of the running server's boolean, numeric and enum rule values, for other processes to read.
+ * <p>
+ * The file is laid out upon world loading, then every change of a mirrored rule writes its value bits in place,
+ * guarded by a sequence lock so that readers never see torn values.
+ * <p>
+ * Each opening writes a new file, atomically moved over the previous one, so that readers of a previous server run
+ * keep reading the previous file, marked as closed, rather than a file being laid out again.
+ * @see RuleMirrorReader for the file format.
+ */
+public final class RuleMirror {
+    public static final String FILE_NAME = UnruledApi.MOD_ID + "_mirror.bin";
+
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, RuleMirrorReader.ORDER);
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, RuleMirrorReader.ORDER);
+
+    private static volatile RuleMirror current;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int dataOffset;
+    /**
+     * Mirror index of each rule slot, {@code -1} for rules which aren't mirrored.
+     */
+    private final int[] indices;
+
+    private RuleMirror(FileChannel channel, MappedByteBuffer buffer, int dataOffset, int[] indices) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.dataOffset = dataOffset;
+        this.indices = indices;
+    }
+
+    /**
+     * Lays out the provided mirror file for the provided gamerules, and writes their current values.
+     */
+    public static synchronized void open(GameRules rules, Path file) {
+        close();
+        GameRules.Rule<?>[] slots = ((IRuleSlotsProvider) rules).unruled_getRuleSlots();
+        int[] indices = new int[slots.length];
+        Arrays.fill(indices, -1);
+        ByteBuffer index = ByteBuffer.allocate(1024).order(RuleMirrorReader.ORDER);
+        int count = 0;
+        for (int i = 0; i < slots.length; i++) {
+            Kind kind = kindOf(slots[i]);
+            if (kind == null) continue;
+            index = ensureRemaining(index, 1);
+            index.put((byte) kind.ordinal());
+            index = putString(index, RuleSlots.get(i).getKey().getName());
+            if (slots[i] instanceof EnumRule<?> e) {
+                Enum<?>[] constants = e.get().getDeclaringClass().getEnumConstants();
+                index = ensureRemaining(index, 2);
+                index.putShort((short) constants.length);
+                for (Enum<?> constant : constants) index = putString(index, constant.name());
+            }
+            indices[i] = count++;
+        }
+        int dataOffset = (RuleMirrorReader.HEADER_SIZE + index.position() + 7) & ~7;
+        int size = dataOffset + count * RuleMirrorReader.SLOT_SIZE;
+        Path tmp = file.resolveSibling(FILE_NAME + ".tmp");
+        try {
+            Files.deleteIfExists(tmp);
+            FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(RuleMirrorReader.ORDER);
+            buffer.putInt(0, RuleMirrorReader.MAGIC);
+            buffer.putShort(4, RuleMirrorReader.VERSION);
+            buffer.putShort(6, (short) 0);
+            buffer.putInt(8, count);
+            buffer.putInt(12, dataOffset);
+            buffer.putLong(16, System.currentTimeMillis());
+            buffer.put(RuleMirrorReader.HEADER_SIZE, index.array(), 0, index.position());
+            RuleMirror mirror = new RuleMirror(channel, buffer, dataOffset, indices);
+            for (int i = 0; i < slots.length; i++) {
+                if (indices[i] >= 0) mirror.write(indices[i], bitsOf(slots[i]));
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            current = mirror;
+        } catch (IOException e) {
+            UnruledApi.LOGGER.error("Failed to open gamerules mirror {}", file, e);
+        }
+    }
+
+    /**
+     * Marks the open mirror as closed, if any, and releases it.
+     */
+    public static synchronized void close() {
+        RuleMirror mirror = current;
+        if (mirror == null) return;
+        current = null;
+        try {
+            mirror.buffer.putShort(6, (short) 1);
+            mirror.buffer.force();
+            mirror.channel.close();
+        } catch (IOException e) {
+            UnruledApi.LOGGER.error("Failed to close gamerules mirror", e);
+        }
+    }
+
+    /**
+     * Returns whether the rule of the provided slot is mirrored by the open mirror, if any.
+     */
+    public static boolean isMirrored(int slot) {
+        RuleMirror mirror = current;
+        return mirror != null && slot >= 0 && slot < mirror.indices.length && mirror.indices[slot] >= 0;
+    }
+
+    /**
+     * Writes the provided rule's new value to the open mirror, if any and if mirrored.
+     */
+    public static void update(int slot, GameRules.Rule<?> rule) {
+        RuleMirror mirror = current;
+        if (mirror == null || slot < 0 || slot >= mirror.indices.length || mirror.indices[slot] < 0) return;
+        synchronized (mirror) {
+            mirror.write(mirror.indices[slot], bitsOf(rule));
+        }
+    }
+
+    private void write(int index, long bits) {
+        int offset = this.dataOffset + index * RuleMirrorReader.SLOT_SIZE;
+        int seq = (int) INT.get(this.buffer, offset);
+        INT.setOpaque(this.buffer, offset, seq + 1);
+        VarHandle.storeStoreFence();
+        LONG.setOpaque(this.buffer, offset + 8, bits);
+        INT.setRelease(this.buffer, offset, seq + 2);
+    }
+
+    private static Kind kindOf(GameRules.Rule<?> rule) {
+        if (rule instanceof GameRules.BooleanRule) return Kind.BOOLEAN;
+        if (rule instanceof GameRules.IntRule) return Kind.INT;
+        if (rule instanceof LongRule) return Kind.LONG;
+        if (rule instanceof FloatRule) return Kind.FLOAT;
+        if (rule instanceof DoubleRule) return Kind.DOUBLE;
+        if (rule instanceof EnumRule<?>) return Kind.ENUM;
+        return null;
+    }
+
+    private static long bitsOf(GameRules.Rule<?> rule) {
+        if (rule instanceof GameRules.BooleanRule b) return b.get() ? 1 : 0;
+        if (rule instanceof GameRules.IntRule i) return i.get();
+        if (rule instanceof LongRule l) return l.get();
+        if (rule instanceof FloatRule f) return Float.floatToRawIntBits(f.get());
+        if (rule instanceof DoubleRule d) return Double.doubleToRawLongBits(d.get());
+        if (rule instanceof EnumRule<?> e) return e.get().ordinal();
+        return 0;
+    }
+
+    private static ByteBuffer putString(ByteBuffer b, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        b = ensureRemaining(b, 2 + bytes.length);
+        return b.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static ByteBuffer ensureRemaining(ByteBuffer b, int n) {
+        if (b.remaining() >= n) return b;
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(b.capacity() * 2, b.position() + n)).order(b.order());
+        return grown.put(b.flip());
+    }
+}
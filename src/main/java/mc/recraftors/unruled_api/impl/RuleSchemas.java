@@ -0,0 +1,111 @@
+package mc.recraftors.unruled_api.impl;
+
+import mc.recraftors.unruled_api.UnruledApi;
+import mc.recraftors.unruled_api.mixin.GameRuleInvoker;
+import mc.recraftors.unruled_api.utils.IRuleSlotsProvider;
+import mc.recraftors.unruled_api.utils.IRuleTypeDefault;
+import mc.recraftors.unruled_api.utils.IValidatedRule;
+import mc.recraftors.unruled_api.utils.RuleSchema;
+import net.minecraft.nbt.AbstractNbtNumber;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtString;
+import net.minecraft.world.GameRules;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Registry of the rule schemas, indexed by their rules' slots.
+ * <p>
+ * The schema versions of the persisted rules are stored next to them, under {@link #VERSIONS_KEY}.
+ * Upon loading, only values stored with an older version, or under a former name, are migrated;
+ * other values, as well as rules without schema, are loaded as is.
+ */
+public final class RuleSchemas {
+    public static final String VERSIONS_KEY = UnruledApi.MOD_ID + ":schemas";
+
+    private static volatile RuleSchema[] bySlot = new RuleSchema[0];
+
+    private RuleSchemas() {}
+
+    public static synchronized void register(GameRules.Key<?> key, RuleSchema schema) {
+        int slot = RuleSlots.get(key).getSlot();
+        RuleSchema[] a = bySlot;
+        a = Arrays.copyOf(a, Math.max(a.length, slot + 1));
+        a[slot] = schema;
+        bySlot = a;
+    }
+
+    /**
+     * Writes the current schema versions of the registered rules to the provided compound, if any.
+     */
+    public static void writeVersions(NbtCompound nbt) {
+        RuleSchema[] a = bySlot;
+        if (a.length == 0) return;
+        NbtCompound versions = new NbtCompound();
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == null || a[i].getVersion() == 0) continue;
+            versions.putInt(RuleSlots.get(i).getKey().getName(), a[i].getVersion());
+        }
+        if (!versions.isEmpty()) nbt.put(VERSIONS_KEY, versions);
+    }
+
+    /**
+     * Migrates the provided gamerules' values which were persisted with an older schema version or under a former name.
+     * @param rules The gamerules to migrate, already loaded from the persisted values.
+     * @param reader The persisted values' reader, by name, returning {@code null} for missing values.
+     */
+    public static void migrate(GameRules rules, Function<String, NbtElement> reader) {
+        RuleSchema[] a = bySlot;
+        if (a.length == 0) return;
+        NbtCompound versions = reader.apply(VERSIONS_KEY) instanceof NbtCompound c ? c : new NbtCompound();
+        GameRules.Rule<?>[] slots = ((IRuleSlotsProvider) rules).unruled_getOwnedRuleSlots();
+        for (int i = 0; i < a.length && i < slots.length; i++) {
+            RuleSchema schema = a[i];
+            GameRules.Rule<?> rule = slots[i];
+            if (schema == null || rule == null) continue;
+            String name = RuleSlots.get(i).getKey().getName();
+            NbtElement element = reader.apply(name);
+            if (element == null) {
+                for (String former : schema.getFormerNames()) {
+                    element = reader.apply(former);
+                    if (element == null) continue;
+                    name = former;
+                    break;
+                }
+                if (element == null) continue;
+            } else if (versions.getInt(name) >= schema.getVersion()) {
+                continue;
+            }
+            String raw = rawValue(element);
+            if (raw == null) continue;
+            String value = schema.migrate(raw, versions.getInt(name));
+            if (value == null) value = ((IRuleTypeDefault) RuleSlots.get(i).getType()).unruled_getDefaultValue();
+            if (rule instanceof IValidatedRule validated) {
+                if (!validated.unruled_tryParse(value).isAccepted()) {
+                    UnruledApi.LOGGER.warn("Migrated value {} of gamerule {} was refused", value, name);
+                }
+            } else {
+                ((GameRuleInvoker) rule).invokeDeserialize(value);
+            }
+        }
+    }
+
+    /**
+     * Returns the serialized form of the provided persisted value, typed or not.
+     */
+    private static String rawValue(NbtElement element) {
+        if (element instanceof NbtString) return element.asString();
+        if (element instanceof AbstractNbtNumber n) return n.numberValue().toString();
+        if (element instanceof NbtCompound c && c.contains("name", NbtElement.STRING_TYPE)) return c.getString("name");
+        if (ChunkedText.isChunked(element)) {
+            try {
+                return ChunkedText.fromNbt((NbtCompound) element).toString();
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
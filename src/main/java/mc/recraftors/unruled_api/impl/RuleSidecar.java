@@ -0,0 +1,126 @@
+package mc.recraftors.unruled_api.impl;
+
+import mc.recraftors.unruled_api.UnruledApi;
+import mc.recraftors.unruled_api.mixin.GameRuleInvoker;
+import mc.recraftors.unruled_api.utils.IDeltaRule;
+import mc.recraftors.unruled_api.utils.IRuleSlotsProvider;
+import mc.recraftors.unruled_api.utils.ITypedNbtRule;
+import mc.recraftors.unruled_api.utils.IValidatedRule;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtSizeTracker;
+import net.minecraft.nbt.NbtString;
+import net.minecraft.world.GameRules;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Asynchronous persistence of the Unruled rules in a file of their own, next to the level data.
+ * <p>
+ * Saving copies the rules on the server thread, then encodes and writes the copies on a background thread.
+ * Writes are performed in order, so that awaiting the latest one awaits all of them.
+ * <p>
+ * The file is loaded whenever present, and deleted upon saving with asynchronous persistence disabled,
+ * so that switching persistence modes loses no value.
+ */
+public final class RuleSidecar {
+    public static final String FILE_NAME = UnruledApi.MOD_ID + "_rules.dat";
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Unruled rules writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static volatile CompletableFuture<Void> latest = CompletableFuture.completedFuture(null);
+
+    private RuleSidecar() {}
+
+    private record Capture(String name, GameRules.Rule<?> copy) {}
+
+    /**
+     * Captures the Unruled rules of the provided gamerules, and writes them to the provided file in the background.
+     * @return The write completion future.
+     */
+    public static CompletableFuture<Void> save(GameRules rules, Path file) {
+        GameRules.Rule<?>[] slots = ((IRuleSlotsProvider) rules).unruled_getRuleSlots();
+        List<Capture> captures = new ArrayList<>();
+        for (int i = 0; i < slots.length; i++) {
+            GameRules.Rule<?> rule = slots[i];
+            if (!(rule instanceof IDeltaRule)) continue;
+            captures.add(new Capture(RuleSlots.get(i).getKey().getName(), ((GameRuleInvoker) rule).invokeCopy()));
+        }
+        boolean typed = UnruledConfig.typedPersistence();
+        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> write(captures, typed, file), EXECUTOR);
+        latest = future;
+        return future;
+    }
+
+    private static void write(List<Capture> captures, boolean typed, Path file) {
+        NbtCompound nbt = new NbtCompound();
+        for (Capture capture : captures) {
+            if (typed && capture.copy() instanceof ITypedNbtRule t) nbt.put(capture.name(), t.unruled_toNbt());
+            else nbt.putString(capture.name(), capture.copy().serialize());
+        }
+        RuleSchemas.writeVersions(nbt);
+        try {
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            NbtIo.writeCompressed(nbt, tmp);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            UnruledApi.LOGGER.error("Failed to write gamerules file {}", file, e);
+        }
+    }
+
+    /**
+     * Waits for every pending write to complete.
+     */
+    public static void await() {
+        latest.join();
+    }
+
+    /**
+     * Deletes the provided file once every pending write completed,
+     * for a file left by a previous asynchronous persistence to not override the level data.
+     */
+    public static void delete(Path file) {
+        await();
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            UnruledApi.LOGGER.error("Failed to delete gamerules file {}", file, e);
+        }
+    }
+
+    /**
+     * Loads the Unruled rules of the provided gamerules from the provided file, if it exists.
+     */
+    public static void load(GameRules rules, Path file) {
+        if (!Files.isRegularFile(file)) return;
+        NbtCompound nbt;
+        try {
+            nbt = NbtIo.readCompressed(file, NbtSizeTracker.ofUnlimitedBytes());
+        } catch (IOException e) {
+            UnruledApi.LOGGER.error("Failed to read gamerules file {}", file, e);
+            return;
+        }
+        GameRules.Rule<?>[] slots = ((IRuleSlotsProvider) rules).unruled_getOwnedRuleSlots();
+        for (int i = 0; i < slots.length; i++) {
+            GameRules.Rule<?> rule = slots[i];
+            if (!(rule instanceof IDeltaRule)) continue;
+            NbtElement element = nbt.get(RuleSlots.get(i).getKey().getName());
+            if (element instanceof NbtString) ((IValidatedRule) rule).unruled_tryParse(element.asString());
+            else if (element != null && rule instanceof ITypedNbtRule t) t.unruled_fromNbt(element);
+        }
+        RuleSchemas.migrate(rules, nbt::get);
+    }
+}
@@ -0,0 +1,100 @@
+package mc.recraftors.unruled_api.impl;
+
+import mc.recraftors.unruled_api.utils.IRuleSlot;
+import mc.recraftors.unruled_api.utils.IRuleSlotsProvider;
+import mc.recraftors.unruled_api.utils.RuleHandle;
+import net.minecraft.world.GameRules;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Registry of the dense slots assigned to every gamerule upon registration.
+ * <p>
+ * Each {@link GameRules} instance holds an array of its rules indexed by these slots.
+ */
+public final class RuleSlots {
+    private static volatile RuleHandle<?>[] handles = new RuleHandle<?>[0];
+
+    private RuleSlots() {}
+
+    public static synchronized <T extends GameRules.Rule<T>> RuleHandle<T> register(GameRules.Key<T> key, GameRules.Type<T> type) {
+        RuleHandle<?>[] a = handles;
+        RuleHandle<T> handle = new RuleHandle<>(key, type, a.length);
+        a = Arrays.copyOf(a, a.length + 1);
+        a[handle.getSlot()] = handle;
+        ((IRuleSlot) key).unruled_setSlot(handle.getSlot());
+        ((IRuleSlot) type).unruled_setSlot(handle.getSlot());
+        handles = a;
+        return handle;
+    }
+
+    public static int count() {
+        return handles.length;
+    }
+
+    public static RuleHandle<?> get(int slot) {
+        return handles[slot];
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T extends GameRules.Rule<T>> RuleHandle<T> get(GameRules.Key<T> key) {
+        int slot = ((IRuleSlot) key).unruled_getSlot();
+        if (slot < 0) throw new IllegalArgumentException("Unregistered gamerule key " + key);
+        return (RuleHandle<T>) handles[slot];
+    }
+
+    /**
+     * Returns the handle of the registered rule of the provided name, or {@code null} if none.
+     */
+    public static RuleHandle<?> get(String name) {
+        for (RuleHandle<?> handle : handles) {
+            if (handle.getKey().getName().equals(name)) return handle;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the name of the registered rule of the provided type, or the type itself if unregistered.
+     */
+    public static String nameOf(GameRules.Type<?> type) {
+        int slot = ((IRuleSlot) type).unruled_getSlot();
+        return slot >= 0 ? handles[slot].getKey().getName() : String.valueOf(type);
+    }
+
+    /**
+     * Builds the slot-indexed array of the provided rules.
+     */
+    public static GameRules.Rule<?>[] collect(Map<GameRules.Key<?>, GameRules.Rule<?>> rules) {
+        GameRules.Rule<?>[] a = new GameRules.Rule<?>[count()];
+        rules.forEach((key, rule) -> {
+            int slot = ((IRuleSlot) key).unruled_getSlot();
+            if (slot >= 0 && slot < a.length) a[slot] = rule;
+        });
+        return a;
+    }
+
+    /**
+     * Returns the rule of the provided slot, read straight from the slots array unless the gamerules still share
+     * rules with a copy, in which case the shared rule is first copied, as the caller may modify it.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends GameRules.Rule<T>> T lookup(GameRules rules, int slot, GameRules.Key<T> key) {
+        IRuleSlotsProvider provider = (IRuleSlotsProvider) rules;
+        GameRules.Rule<?>[] slots = provider.unruled_getRuleSlots();
+        if (slot < 0 || slot >= slots.length) return rules.get(key);
+        GameRules.Rule<?> rule = provider.unruled_hasSharedRules() ? provider.unruled_getOwnedRule(slot) : slots[slot];
+        return rule != null ? (T) rule : rules.get(key);
+    }
+
+    /**
+     * Returns the rule of the provided slot, read straight from the slots array even if shared with a copy,
+     * for its value to be read. The returned rule must not be modified.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends GameRules.Rule<T>> T peek(GameRules rules, int slot, GameRules.Key<T> key) {
+        GameRules.Rule<?>[] slots = ((IRuleSlotsProvider) rules).unruled_getRuleSlots();
+        GameRules.Rule<?> rule = slot >= 0 && slot < slots.length ? slots[slot] : null;
+        return rule != null ? (T) rule : rules.get(key);
+    }
+}
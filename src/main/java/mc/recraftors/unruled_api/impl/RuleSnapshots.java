@@ -0,0 +1,78 @@
+package mc.recraftors.unruled_api.impl;
+
+import mc.recraftors.unruled_api.utils.GameRulesSnapshot;
+import mc.recraftors.unruled_api.utils.IRuleSlotsProvider;
+import net.minecraft.world.GameRules;
+
+/**
+ * Publisher of the running server's {@link GameRulesSnapshot gamerules snapshots}.
+ * <p>
+ * Snapshots are rebuilt copy-on-write on the server thread, and published with a single volatile write.
+ * They are only maintained once tracked, upon the first snapshot read or change listener subscription,
+ * so that rule changes don't copy anything while nothing reads them.
+ */
+public final class RuleSnapshots {
+    private static volatile GameRulesSnapshot current = GameRulesSnapshot.EMPTY;
+    private static volatile GameRules bound;
+    private static volatile boolean tracked;
+
+    private RuleSnapshots() {}
+
+    public static GameRulesSnapshot current() {
+        if (!tracked) track();
+        return current;
+    }
+
+    public static boolean isTracked() {
+        return tracked;
+    }
+
+    /**
+     * Starts maintaining the snapshots, rebuilding the current one from the bound gamerules if not yet tracked.
+     */
+    public static synchronized void track() {
+        if (tracked) return;
+        tracked = true;
+        current = build(bound, current.getVersion() + 1);
+    }
+
+    /**
+     * Returns whether the provided rule of the provided slot belongs to the bound gamerules.
+     */
+    public static boolean isBound(int slot, GameRules.Rule<?> rule) {
+        GameRules rules = bound;
+        if (rules == null || slot < 0) return false;
+        GameRules.Rule<?>[] slots = ((IRuleSlotsProvider) rules).unruled_getRuleSlots();
+        return slot < slots.length && slots[slot] == rule;
+    }
+
+    /**
+     * Binds the snapshots to the provided gamerules, or clears them if {@code null}.
+     */
+    public static synchronized void bind(GameRules rules) {
+        bound = rules;
+        long version = current.getVersion() + 1;
+        current = tracked ? build(rules, version) : new GameRulesSnapshot(version, new Object[0]);
+    }
+
+    private static GameRulesSnapshot build(GameRules rules, long version) {
+        if (rules == null) return new GameRulesSnapshot(version, new Object[0]);
+        GameRules.Rule<?>[] slots = ((IRuleSlotsProvider) rules).unruled_getRuleSlots();
+        Object[] values = new Object[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != null) values[i] = GameRulesSnapshot.valueOf(slots[i]);
+        }
+        return new GameRulesSnapshot(version, values);
+    }
+
+    /**
+     * Publishes a new snapshot holding the provided rule's new value, if it belongs to the bound gamerules.
+     * @return The previous snapshot, or {@code null} if the rule doesn't belong to the bound gamerules.
+     */
+    public static synchronized GameRulesSnapshot update(int slot, GameRules.Rule<?> rule) {
+        if (!isBound(slot, rule)) return null;
+        GameRulesSnapshot previous = current;
+        current = previous.with(slot, GameRulesSnapshot.valueOf(rule));
+        return previous;
+    }
+}
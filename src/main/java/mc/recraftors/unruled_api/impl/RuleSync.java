@@ -0,0 +1,276 @@
+package mc.recraftors.unruled_api.impl;
+
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import mc.recraftors.unruled_api.mixin.GameRuleInvoker;
+import mc.recraftors.unruled_api.rules.DoubleRule;
+import mc.recraftors.unruled_api.rules.EnumRule;
+import mc.recraftors.unruled_api.rules.FloatRule;
+import mc.recraftors.unruled_api.rules.LongRule;
+import mc.recraftors.unruled_api.utils.IRuleSlotsProvider;
+import mc.recraftors.unruled_api.utils.IValidatedRule;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.world.GameRules;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server to client synchronization of the rules declared as synced.
+ * <p>
+ * Joining clients first declare the synced rules they are interested in, then receive a full snapshot of them,
+ * and the rules of interest changed during a tick are sent at its end, in a single payload.
+ * Players whose client doesn't have this library receive nothing.
+ * Without the Fabric networking API, no rule is synced and its classes are never loaded.
+ * <p>
+ * Synced rules are indexed in declaration order. Full snapshot format: a varint synced rule count, a varint entry
+ * count, then for each rule of interest its varint index, name, a kind byte and its value. Changes format: a varint
+ * change count, then for each changed rule its varint index and its value. Values are encoded according to their rule's kind: a byte for booleans,
+ * a varint for integers and enum ordinals, raw bits for longs, floats and doubles, and varint-prefixed UTF-8 for
+ * any other rule's serialized value.
+ */
+public final class RuleSync {
+    /**
+     * Whether the Fabric networking API is loaded.
+     */
+    public static final boolean AVAILABLE = FabricLoader.getInstance().isModLoaded("fabric-networking-api-v1");
+
+    public static final byte NONE = 0;
+    public static final byte BOOLEAN = 1;
+    public static final byte INT = 2;
+    public static final byte LONG = 3;
+    public static final byte FLOAT = 4;
+    public static final byte DOUBLE = 5;
+    public static final byte ENUM = 6;
+    public static final byte STRING = 7;
+
+    private static final BitSet PENDING = new BitSet();
+    /**
+     * Synced rule indices each player is interested in.
+     */
+    private static final Map<UUID, BitSet> INTERESTS = new ConcurrentHashMap<>();
+
+    /**
+     * Slot of each synced rule, in declaration order.
+     */
+    private static volatile int[] synced = new int[0];
+    /**
+     * Sync index of each rule slot, {@code -1} for rules which aren't synced.
+     */
+    private static volatile int[] indices = new int[0];
+
+    private RuleSync() {}
+
+    public static synchronized void register(GameRules.Key<?> key) {
+        int slot = RuleSlots.get(key).getSlot();
+        int[] a = indices;
+        if (slot < a.length && a[slot] >= 0) return;
+        if (slot >= a.length) {
+            int length = a.length;
+            a = Arrays.copyOf(a, slot + 1);
+            Arrays.fill(a, length, a.length, -1);
+        } else {
+            a = a.clone();
+        }
+        int[] s = Arrays.copyOf(synced, synced.length + 1);
+        s[s.length - 1] = slot;
+        a[slot] = s.length - 1;
+        synced = s;
+        indices = a;
+    }
+
+    /**
+     * Returns whether the rule of the provided slot is synced.
+     */
+    public static boolean isSynced(int slot) {
+        int[] a = indices;
+        return slot >= 0 && slot < a.length && a[slot] >= 0;
+    }
+
+    /**
+     * Records a change of the rule of the provided slot, sent to the players at the end of the tick if synced.
+     */
+    public static void markChanged(int slot) {
+        int[] a = indices;
+        if (slot < 0 || slot >= a.length || a[slot] < 0) return;
+        synchronized (PENDING) {
+            PENDING.set(a[slot]);
+        }
+    }
+
+    /**
+     * Discards the pending changes and the players' interests, upon server shutdown.
+     */
+    public static void clear() {
+        synchronized (PENDING) {
+            PENDING.clear();
+        }
+        INTERESTS.clear();
+    }
+
+    /**
+     * Records the provided player's interest, then sends them the full snapshot of the synced rules of interest.
+     * <p>
+     * Only the first interest declared during a connection is honored, further ones being ignored,
+     * so that clients can't request full snapshots at will. Unknown and repeated names are ignored.
+     */
+    public static void subscribe(ServerPlayerEntity player, RuleInterestPayload interest) {
+        if (INTERESTS.containsKey(player.getUuid())) return;
+        int[] s = synced;
+        Set<String> rules = Set.copyOf(interest.rules());
+        Set<String> categories = Set.copyOf(interest.categories());
+        BitSet bits = new BitSet(s.length);
+        for (int i = 0; i < s.length; i++) {
+            GameRules.Key<?> key = RuleSlots.get(s[i]).getKey();
+            if (interest.all() || rules.contains(key.getName()) || categories.contains(key.getCategory().name())) bits.set(i);
+        }
+        if (INTERESTS.putIfAbsent(player.getUuid(), bits) != null) return;
+        sendSnapshot(player, bits);
+    }
+
+    /**
+     * Forgets the provided player's interest, upon disconnection.
+     */
+    public static void unsubscribe(ServerPlayerEntity player) {
+        INTERESTS.remove(player.getUuid());
+    }
+
+    /**
+     * Sends the full snapshot of the provided synced rules to the provided player.
+     */
+    private static void sendSnapshot(ServerPlayerEntity player, BitSet interest) {
+        int[] s = synced;
+        if (interest.isEmpty() || !ServerPlayNetworking.canSend(player, RuleSyncPayload.ID)) return;
+        GameRules.Rule<?>[] slots = ((IRuleSlotsProvider) player.getServer().getGameRules()).unruled_getRuleSlots();
+        PacketByteBuf buf = new PacketByteBuf(Unpooled.buffer());
+        buf.writeVarInt(s.length);
+        buf.writeVarInt(interest.cardinality());
+        for (int i = interest.nextSetBit(0); i >= 0; i = interest.nextSetBit(i + 1)) {
+            GameRules.Rule<?> rule = s[i] < slots.length ? slots[s[i]] : null;
+            byte kind = kindOf(rule);
+            buf.writeVarInt(i);
+            buf.writeString(RuleSlots.get(s[i]).getKey().getName());
+            buf.writeByte(kind);
+            writeValue(buf, kind, rule);
+        }
+        ServerPlayNetworking.send(player, new RuleSyncPayload(true, toArray(buf)));
+    }
+
+    /**
+     * Sends the synced rules changed during the tick to the players interested in them,
+     * called at the end of every server tick.
+     * <p>
+     * Players sharing the same changed rules of interest share the same payload.
+     */
+    public static void flush(MinecraftServer server) {
+        BitSet changed;
+        synchronized (PENDING) {
+            if (PENDING.isEmpty()) return;
+            changed = (BitSet) PENDING.clone();
+            PENDING.clear();
+        }
+        GameRules.Rule<?>[] slots = ((IRuleSlotsProvider) server.getGameRules()).unruled_getRuleSlots();
+        Map<BitSet, RuleSyncPayload> payloads = new HashMap<>();
+        for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
+            BitSet interest = INTERESTS.get(player.getUuid());
+            if (interest == null || !interest.intersects(changed)) continue;
+            BitSet sent = (BitSet) interest.clone();
+            sent.and(changed);
+            ServerPlayNetworking.send(player, payloads.computeIfAbsent(sent, b -> changes(b, slots)));
+        }
+    }
+
+    private static RuleSyncPayload changes(BitSet changed, GameRules.Rule<?>[] slots) {
+        int[] s = synced;
+        PacketByteBuf buf = new PacketByteBuf(Unpooled.buffer());
+        buf.writeVarInt(changed.cardinality());
+        for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+            GameRules.Rule<?> rule = s[i] < slots.length ? slots[s[i]] : null;
+            buf.writeVarInt(i);
+            writeValue(buf, kindOf(rule), rule);
+        }
+        return new RuleSyncPayload(false, toArray(buf));
+    }
+
+    private static byte[] toArray(PacketByteBuf buf) {
+        try {
+            return ByteBufUtil.getBytes(buf);
+        } finally {
+            buf.release();
+        }
+    }
+
+    public static byte kindOf(GameRules.Rule<?> rule) {
+        if (rule == null) return NONE;
+        if (rule instanceof GameRules.BooleanRule) return BOOLEAN;
+        if (rule instanceof GameRules.IntRule) return INT;
+        if (rule instanceof LongRule) return LONG;
+        if (rule instanceof FloatRule) return FLOAT;
+        if (rule instanceof DoubleRule) return DOUBLE;
+        if (rule instanceof EnumRule<?>) return ENUM;
+        return STRING;
+    }
+
+    private static void writeValue(PacketByteBuf buf, byte kind, GameRules.Rule<?> rule) {
+        switch (kind) {
+            case BOOLEAN -> buf.writeBoolean(((GameRules.BooleanRule) rule).get());
+            case INT -> buf.writeVarInt(((GameRules.IntRule) rule).get());
+            case LONG -> buf.writeLong(((LongRule) rule).get());
+            case FLOAT -> buf.writeFloat(((FloatRule) rule).get());
+            case DOUBLE -> buf.writeDouble(((DoubleRule) rule).get());
+            case ENUM -> buf.writeVarInt(((EnumRule<?>) rule).get().ordinal());
+            case STRING -> buf.writeByteArray(rule.serialize().getBytes(StandardCharsets.UTF_8));
+            default -> {}
+        }
+    }
+
+    /**
+     * Reads a value of the provided kind, boxed.
+     * @return The read value, {@code null} for the {@link #NONE} kind.
+     */
+    public static Object readValue(PacketByteBuf buf, byte kind) {
+        return switch (kind) {
+            case BOOLEAN -> buf.readBoolean();
+            case INT, ENUM -> buf.readVarInt();
+            case LONG -> buf.readLong();
+            case FLOAT -> buf.readFloat();
+            case DOUBLE -> buf.readDouble();
+            case STRING -> new String(buf.readByteArray(), StandardCharsets.UTF_8);
+            default -> null;
+        };
+    }
+
+    /**
+     * Sets the provided read value to the provided rule, if of the provided kind.
+     */
+    public static void apply(GameRules.Rule<?> rule, byte kind, Object value) {
+        if (value == null || kindOf(rule) != kind) return;
+        switch (kind) {
+            case BOOLEAN -> ((GameRules.BooleanRule) rule).set((Boolean) value, null);
+            case INT -> ((GameRules.IntRule) rule).set((Integer) value, null);
+            case LONG -> ((LongRule) rule).set((Long) value, null);
+            case FLOAT -> ((FloatRule) rule).set((Float) value, null);
+            case DOUBLE -> ((DoubleRule) rule).set((Double) value, null);
+            case ENUM -> applyOrdinal((EnumRule<?>) rule, (Integer) value);
+            default -> {
+                if (rule instanceof IValidatedRule validated) validated.unruled_tryParse((String) value);
+                else ((GameRuleInvoker) rule).invokeDeserialize((String) value);
+            }
+        }
+    }
+
+    private static <T extends Enum<T>> void applyOrdinal(EnumRule<T> rule, int ordinal) {
+        T[] constants = rule.get().getDeclaringClass().getEnumConstants();
+        if (ordinal >= 0 && ordinal < constants.length) rule.set(constants[ordinal], null);
+    }
+}
@@ -0,0 +1,30 @@
+package mc.recraftors.unruled_api.impl;
+
+import mc.recraftors.unruled_api.UnruledApi;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.util.Identifier;
+
+/**
+ * Server to client payload of synced rule values, either a full snapshot or a tick's changes.
+ * @see RuleSync for the data format.
+ */
+public record RuleSyncPayload(boolean full, byte[] data) implements CustomPayload {
+    public static final Id<RuleSyncPayload> ID = new Id<>(Identifier.of(UnruledApi.MOD_ID, "rule_sync"));
+    public static final PacketCodec<PacketByteBuf, RuleSyncPayload> CODEC = CustomPayload.codecOf(RuleSyncPayload::write, RuleSyncPayload::new);
+
+    private RuleSyncPayload(PacketByteBuf buf) {
+        this(buf.readBoolean(), buf.readByteArray());
+    }
+
+    private void write(PacketByteBuf buf) {
+        buf.writeBoolean(this.full);
+        buf.writeByteArray(this.data);
+    }
+
+    @Override
+    public Id<? extends CustomPayload> getId() {
+        return ID;
+    }
+}
@@ -0,0 +1,66 @@
+package mc.recraftors.unruled_api.impl;
+
+import mc.recraftors.unruled_api.utils.StableRule;
+import net.minecraft.world.GameRules;
+
+import java.util.Arrays;
+
+/**
+ * Registry of the stable rules, indexed by their rules' slots.
+ * <p>
+ * Stable rules read the gamerules bound upon server world loading,
+ * and are invalidated whenever one of these rules changes.
+ */
+public final class StableRules {
+    private static final StableRule<?, ?>[] EMPTY = new StableRule<?, ?>[0];
+
+    private static volatile StableRule<?, ?>[][] bySlot = new StableRule<?, ?>[0][];
+    private static volatile GameRules bound;
+
+    private StableRules() {}
+
+    public static synchronized <T extends GameRules.Rule<T>, V> StableRule<T, V> register(StableRule<T, V> rule) {
+        int slot = rule.getHandle().getSlot();
+        StableRule<?, ?>[][] a = bySlot;
+        if (slot >= a.length) a = Arrays.copyOf(a, slot + 1);
+        else a = a.clone();
+        StableRule<?, ?>[] b = a[slot] == null ? EMPTY : a[slot];
+        b = Arrays.copyOf(b, b.length + 1);
+        b[b.length - 1] = rule;
+        a[slot] = b;
+        bySlot = a;
+        return rule;
+    }
+
+    public static GameRules getBound() {
+        return bound;
+    }
+
+    /**
+     * Binds the stable rules to the provided gamerules, or to the rules' default values if {@code null}.
+     */
+    public static void bind(GameRules rules) {
+        bound = rules;
+        for (StableRule<?, ?>[] a : bySlot) {
+            if (a == null) continue;
+            for (StableRule<?, ?> rule : a) rule.invalidate();
+        }
+    }
+
+    /**
+     * Returns whether stable rules were registered for the provided slot.
+     */
+    public static boolean isStable(int slot) {
+        StableRule<?, ?>[][] a = bySlot;
+        return slot >= 0 && slot < a.length && a[slot] != null;
+    }
+
+    /**
+     * Invalidates the stable rules of the provided slot, if any.
+     */
+    public static void invalidate(int slot) {
+        StableRule<?, ?>[][] a = bySlot;
+        if (slot < 0 || slot >= a.length || a[slot] == null) return;
+        for (StableRule<?, ?> rule : a[slot]) rule.invalidate();
+    }
+}
@@ -0,0 +1,153 @@
+package mc.recraftors.unruled_api.impl;
+
+import mc.recraftors.unruled_api.UnruledApi;
+import net.fabricmc.loader.api.FabricLoader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Library configuration, read once from {@code config/unruled_api.properties}.
+ * <p>
+ * Missing files are created with the default values, and invalid values fall back to the defaults.
+ */
+public final class UnruledConfig {
+    public static final String FILE_NAME = UnruledApi.MOD_ID + ".properties";
+
+    private static final Properties DEFAULTS = new Properties();
+    private static final Properties PROPERTIES;
+
+    static {
+        DEFAULTS.setProperty("entitySelectorCacheSize", "256");
+        DEFAULTS.setProperty("typedPersistence", "false");
+        DEFAULTS.setProperty("deltaPersistence", "false");
+        DEFAULTS.setProperty("asyncPersistence", "false");
+        DEFAULTS.setProperty("journal", "false");
+        DEFAULTS.setProperty("journalSize", "65536");
+        DEFAULTS.setProperty("mirror", "false");
+        DEFAULTS.setProperty("textCompressionThreshold", "1024");
+        DEFAULTS.setProperty("clientCache", "true");
+        DEFAULTS.setProperty("controlSocket", "false");
+        DEFAULTS.setProperty("metricsPort", "0");
+        PROPERTIES = load(FabricLoader.getInstance().getConfigDir().resolve(FILE_NAME));
+    }
+
+    private UnruledConfig() {}
+
+    private static Properties load(Path path) {
+        Properties properties = new Properties(DEFAULTS);
+        if (Files.isRegularFile(path)) {
+            try (Reader reader = Files.newBufferedReader(path)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                UnruledApi.LOGGER.warn("Failed to read config file {}, using defaults", path, e);
+            }
+            return properties;
+        }
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            DEFAULTS.store(writer, "Unruled API configuration");
+        } catch (IOException e) {
+            UnruledApi.LOGGER.warn("Failed to write default config file {}", path, e);
+        }
+        return properties;
+    }
+
+    public static String getString(String key) {
+        return PROPERTIES.getProperty(key);
+    }
+
+    public static int getInt(String key) {
+        String s = PROPERTIES.getProperty(key);
+        try {
+            return Integer.parseInt(s.trim());
+        } catch (NumberFormatException | NullPointerException e) {
+            UnruledApi.LOGGER.warn("Invalid config value {} for {}, using default", s, key);
+            return Integer.parseInt(DEFAULTS.getProperty(key));
+        }
+    }
+
+    public static boolean getBoolean(String key) {
+        return Boolean.parseBoolean(PROPERTIES.getProperty(key, "").trim());
+    }
+
+    /**
+     * Maximum number of parsed entity selectors kept in cache, {@code 0} disabling the cache.
+     */
+    public static int entitySelectorCacheSize() {
+        return Math.max(0, getInt("entitySelectorCacheSize"));
+    }
+
+    /**
+     * Whether rules supporting it are persisted as typed NBT rather than as strings.
+     */
+    public static boolean typedPersistence() {
+        return getBoolean("typedPersistence");
+    }
+
+    /**
+     * Whether only the rules differing from their default value are persisted.
+     */
+    public static boolean deltaPersistence() {
+        return getBoolean("deltaPersistence");
+    }
+
+    /**
+     * Whether Unruled rules are persisted asynchronously in a file of their own rather than in the level data.
+     */
+    public static boolean asyncPersistence() {
+        return getBoolean("asyncPersistence");
+    }
+
+    /**
+     * Whether Unruled rules changes are journaled, to survive crashes between saves.
+     */
+    public static boolean journal() {
+        return getBoolean("journal");
+    }
+
+    /**
+     * Initial size of the rule changes journal file, in bytes.
+     */
+    public static int journalSize() {
+        return getInt("journalSize");
+    }
+
+    /**
+     * Whether rule values are mirrored to a memory-mapped file, for other processes to read.
+     */
+    public static boolean mirror() {
+        return getBoolean("mirror");
+    }
+
+    /**
+     * Minimum length of the text rule values held compressed, {@code 0} to never compress them.
+     */
+    public static int textCompressionThreshold() {
+        return getInt("textCompressionThreshold");
+    }
+
+    /**
+     * Whether clients cache the synced rule values of each server, to read them until receiving the new ones.
+     */
+    public static boolean clientCache() {
+        return getBoolean("clientCache");
+    }
+
+    /**
+     * Whether servers accept batched rule reads and writes on a local UNIX domain socket.
+     */
+    public static boolean controlSocket() {
+        return getBoolean("controlSocket");
+    }
+
+    /**
+     * Local port of the rule metrics HTTP endpoint, {@code 0} to disable it.
+     */
+    public static int metricsPort() {
+        return Math.max(0, getInt("metricsPort"));
+    }
+}
@@ -0,0 +1,48 @@
+package mc.recraftors.unruled_api.impl;
+
+import org.objectweb.asm.tree.ClassNode;
+import org.spongepowered.asm.mixin.extensibility.IMixinConfigPlugin;
+import org.spongepowered.asm.mixin.extensibility.IMixinInfo;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mixin configuration plugin, leaving the integer rules' setter untouched when the
+ * {@code unruled_api.benchmark.vanilla} system property is set, as the baseline of the setter's benchmark.
+ */
+public final class UnruledMixinPlugin implements IMixinConfigPlugin {
+    private static final String PACKAGE = "mc.recraftors.unruled_api.mixin.";
+    private static final Set<String> VANILLA_SETTER = Set.of(PACKAGE + "GameRuleChangedMixin", PACKAGE + "IntRuleMixin");
+
+    private boolean vanilla;
+
+    @Override
+    public void onLoad(String mixinPackage) {
+        this.vanilla = Boolean.getBoolean("unruled_api.benchmark.vanilla");
+    }
+
+    @Override
+    public String getRefMapperConfig() {
+        return null;
+    }
+
+    @Override
+    public boolean shouldApplyMixin(String targetClassName, String mixinClassName) {
+        return !this.vanilla || !VANILLA_SETTER.contains(mixinClassName);
+    }
+
+    @Override
+    public void acceptTargets(Set<String> myTargets, Set<String> otherTargets) {}
+
+    @Override
+    public List<String> getMixins() {
+        return null;
+    }
+
+    @Override
+    public void preApply(String targetClassName, ClassNode targetClass, String mixinClassName, IMixinInfo mixinInfo) {}
+
+    @Override
+    public void postApply(String targetClassName, ClassNode targetClass, String mixinClassName, IMixinInfo mixinInfo) {}
+}
@@ -0,0 +1,53 @@
+package mc.recraftors.unruled_api.mixin;
+
+import mc.recraftors.unruled_api.impl.RuleEvents;
+import mc.recraftors.unruled_api.impl.RuleJournal;
+import mc.recraftors.unruled_api.impl.RuleMetrics;
+import mc.recraftors.unruled_api.impl.RuleMirror;
+import mc.recraftors.unruled_api.impl.RuleSlots;
+import mc.recraftors.unruled_api.impl.RuleSnapshots;
+import mc.recraftors.unruled_api.impl.RuleSync;
+import mc.recraftors.unruled_api.impl.StableRules;
+import mc.recraftors.unruled_api.utils.GameRulesSnapshot;
+import mc.recraftors.unruled_api.utils.IDeltaRule;
+import mc.recraftors.unruled_api.utils.IRuleSlot;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.GameRules;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Notifies the snapshots, stable rules, mirror, sync, metrics, journal and listeners of the server rules' changes.
+ * <p>
+ * Changes of rules none of these track return before touching any of them.
+ */
+@Mixin(GameRules.Rule.class)
+public abstract class GameRuleChangedMixin {
+    @Shadow @Final protected GameRules.Type<?> type;
+
+    @Unique
+    private static boolean unruled_isTracked(int slot, GameRules.Rule<?> rule) {
+        return RuleSnapshots.isTracked() || StableRules.isStable(slot) || RuleMirror.isMirrored(slot)
+                || RuleSync.isSynced(slot) || RuleMetrics.isOpen() || rule instanceof IDeltaRule && RuleJournal.isOpen();
+    }
+
+    @Inject(method = "changed", at = @At("HEAD"))
+    private void onChangedInjector(MinecraftServer server, CallbackInfo ci) {
+        if (server == null) return;
+        int slot = ((IRuleSlot) this.type).unruled_getSlot();
+        GameRules.Rule<?> rule = (GameRules.Rule<?>) (Object) this;
+        if (!unruled_isTracked(slot, rule) || !RuleSnapshots.isBound(slot, rule)) return;
+        GameRulesSnapshot previous = RuleSnapshots.isTracked() ? RuleSnapshots.update(slot, rule) : null;
+        StableRules.invalidate(slot);
+        RuleMirror.update(slot, rule);
+        RuleSync.markChanged(slot);
+        RuleMetrics.recordSet(slot);
+        if (rule instanceof IDeltaRule && RuleJournal.isOpen()) RuleJournal.append(RuleSlots.get(slot).getKey().getName(), rule.serialize(), RuleEvents.currentSource());
+        if (previous != null) RuleEvents.dispatch(server, slot, previous, RuleSnapshots.current());
+    }
+}
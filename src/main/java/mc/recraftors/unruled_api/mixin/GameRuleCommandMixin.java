@@ -1,17 +1,30 @@
 package mc.recraftors.unruled_api.mixin;
 
 import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.mojang.brigadier.LiteralMessage;
+import com.mojang.brigadier.arguments.StringArgumentType;
 import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
 import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.DynamicCommandExceptionType;
+import mc.recraftors.unruled_api.impl.RuleEvents;
+import mc.recraftors.unruled_api.utils.ChangeSource;
+import mc.recraftors.unruled_api.rules.StringRule;
 import mc.recraftors.unruled_api.utils.EncapsulatedException;
+import mc.recraftors.unruled_api.utils.IValidatedRule;
+import mc.recraftors.unruled_api.utils.ValidationResult;
 import net.minecraft.server.command.GameRuleCommand;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.world.GameRules;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 
 @Mixin(GameRuleCommand.class)
 public abstract class GameRuleCommandMixin {
+    @Unique
+    private static final DynamicCommandExceptionType unruled_INVALID_VALUE = new DynamicCommandExceptionType(
+            result -> new LiteralMessage(result == ValidationResult.UNPARSEABLE ? "Invalid value" : "Value rejected by the rule"));
+
     @WrapOperation(
             method = "executeSet",
             at = @At(
@@ -24,9 +37,17 @@ public abstract class GameRuleCommandMixin {
             Operation<Void> original
     ) throws Exception {
         try {
-            original.call(instance, context, name);
+            RuleEvents.runAs(ChangeSource.COMMAND, () -> original.call(instance, context, name));
         } catch (EncapsulatedException ex) {
             throw ex.exception;
         }
+        if (instance instanceof IValidatedRule rule) {
+            ValidationResult result = rule.unruled_getLastResult();
+            if (result.isAccepted()) return;
+            if (result == ValidationResult.TOO_LONG && instance instanceof StringRule stringRule) {
+                throw StringRule.SIZE_TOO_LONG.create(stringRule.getMaxLength(), StringArgumentType.getString(context, name).length());
+            }
+            throw unruled_INVALID_VALUE.create(result);
+        }
     }
 }
@@ -0,0 +1,22 @@
+package mc.recraftors.unruled_api.mixin;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.GameRules;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+@Mixin(GameRules.Rule.class)
+public interface GameRuleInvoker {
+    @Invoker("copy")
+    GameRules.Rule<?> invokeCopy();
+
+    @Invoker("deserialize")
+    void invokeDeserialize(String value);
+
+    @Invoker("changed")
+    void invokeChanged(MinecraftServer server);
+
+    @Accessor("type")
+    GameRules.Type<?> getRuleType();
+}
@@ -1,22 +1,39 @@
 package mc.recraftors.unruled_api.mixin;
 
+import com.llamalad7.mixinextras.injector.v2.WrapWithCondition;
+import mc.recraftors.unruled_api.impl.RuleMetrics;
 import mc.recraftors.unruled_api.utils.GameruleAccessor;
 import mc.recraftors.unruled_api.utils.IGameruleAdapter;
 import mc.recraftors.unruled_api.utils.IGameruleValidator;
+import mc.recraftors.unruled_api.utils.IRuleSlot;
+import mc.recraftors.unruled_api.utils.IValidatedRule;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.world.GameRules;
+import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
 
 import java.util.Optional;
 
 @Mixin(GameRules.Rule.class)
 public abstract class GameRuleMixin<T> implements GameruleAccessor<T> {
+    @Shadow @Final protected GameRules.Type<?> type;
+
     @Unique
     IGameruleAdapter<T> unruled_default_adapter = Optional::ofNullable;
 
     @Unique
     IGameruleValidator<T> unruled_default_validator = e -> true;
 
+    @WrapWithCondition(method = "set(Lcom/mojang/brigadier/context/CommandContext;Ljava/lang/String;)V", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/GameRules$Rule;changed(Lnet/minecraft/server/MinecraftServer;)V"))
+    private boolean setChangedCondition(GameRules.Rule<?> instance, MinecraftServer server) {
+        if (!((Object) this instanceof IValidatedRule rule)) return true;
+        RuleMetrics.recordResult(((IRuleSlot) this.type).unruled_getSlot(), rule.unruled_getLastResult());
+        return rule.unruled_getLastResult().isAccepted() && rule.unruled_hasLastChanged();
+    }
+
     @Override
     public void unruled_setAdapter(IGameruleAdapter<T> adapter) {
         this.unruled_default_adapter = adapter;
@@ -0,0 +1,16 @@
+package mc.recraftors.unruled_api.mixin;
+
+import net.minecraft.resource.featuretoggle.FeatureSet;
+import net.minecraft.world.GameRules;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+import java.util.Map;
+
+@Mixin(GameRules.class)
+public interface GameRulesInvoker {
+    @Invoker("<init>")
+    static GameRules invokeInit(Map<GameRules.Key<?>, GameRules.Rule<?>> rules, FeatureSet enabledFeatures) {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,22 @@
+package mc.recraftors.unruled_api.mixin;
+
+import mc.recraftors.unruled_api.utils.IRuleSlot;
+import net.minecraft.world.GameRules;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+@Mixin(GameRules.Key.class)
+public abstract class GameRulesKeyMixin implements IRuleSlot {
+    @Unique
+    private int unruled_slot = -1;
+
+    @Override
+    public int unruled_getSlot() {
+        return this.unruled_slot;
+    }
+
+    @Override
+    public void unruled_setSlot(int slot) {
+        this.unruled_slot = slot;
+    }
+}
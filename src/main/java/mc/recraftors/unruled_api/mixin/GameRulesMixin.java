@@ -1,43 +1,251 @@
 package mc.recraftors.unruled_api.mixin;
 
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
+import com.mojang.serialization.DynamicLike;
+import mc.recraftors.unruled_api.impl.RuleSchemas;
+import mc.recraftors.unruled_api.impl.RuleSlots;
+import mc.recraftors.unruled_api.impl.UnruledConfig;
 import mc.recraftors.unruled_api.rules.*;
+import mc.recraftors.unruled_api.utils.IDeltaRule;
 import mc.recraftors.unruled_api.utils.IGameRulesProvider;
+import mc.recraftors.unruled_api.utils.IRuleSlot;
+import mc.recraftors.unruled_api.utils.IRuleSlotsProvider;
+import mc.recraftors.unruled_api.utils.IRuleTypeDefault;
+import mc.recraftors.unruled_api.utils.ITypedNbtRule;
 import net.minecraft.command.EntitySelector;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.NbtString;
+import net.minecraft.resource.featuretoggle.FeatureSet;
 import net.minecraft.world.GameRules;
+import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Mutable;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Mixin(GameRules.class)
-public abstract class GameRulesMixin implements IGameRulesProvider {
-    @Shadow public abstract <T extends GameRules.Rule<T>> T get(GameRules.Key<T> key);
+public abstract class GameRulesMixin implements IGameRulesProvider, IRuleSlotsProvider {
+    @Shadow @Final @Mutable private Map<GameRules.Key<?>, GameRules.Rule<?>> rules;
+
+    @Unique
+    private GameRules.Rule<?>[] unruled_slots;
+    /**
+     * Slots of the rules shared with copies of this instance, or with the instance it was copied from,
+     * {@code null} if none.
+     * <p>
+     * Published sets are never modified, but replaced while holding this instance's lock,
+     * so that the set may be checked without locking.
+     */
+    @Unique
+    private volatile BitSet unruled_shared;
+
+    @Inject(method = "register", at = @At("RETURN"))
+    private static <T extends GameRules.Rule<T>> void onRegisterSlotInjector(
+            String name, GameRules.Category category, GameRules.Type<T> type, CallbackInfoReturnable<GameRules.Key<T>> cir) {
+        RuleSlots.register(cir.getReturnValue(), type);
+    }
+
+    @Inject(method = "<init>(Ljava/util/Map;Lnet/minecraft/resource/featuretoggle/FeatureSet;)V", at = @At("TAIL"))
+    private void onInitSlotsInjector(Map<GameRules.Key<?>, GameRules.Rule<?>> rules, FeatureSet enabledFeatures, CallbackInfo ci) {
+        this.unruled_slots = RuleSlots.collect(rules);
+    }
+
+    /**
+     * Copies the gamerules without copying any rule, each rule being copied when first handed out
+     * for a possible write, by either instance. Shared rules are thus never modified.
+     */
+    @Inject(method = "copy", at = @At("HEAD"), cancellable = true)
+    private void onCopyInjector(FeatureSet enabledFeatures, CallbackInfoReturnable<GameRules> cir) {
+        synchronized (this) {
+            GameRules.Rule<?>[] slots = this.unruled_slots;
+            Map<GameRules.Key<?>, GameRules.Rule<?>> map = new LinkedHashMap<>();
+            BitSet shared = new BitSet(slots.length);
+            this.rules.forEach((key, rule) -> {
+                int slot = ((IRuleSlot) key).unruled_getSlot();
+                if (slot >= 0 && slot < slots.length && slots[slot] == rule) {
+                    map.put(key, rule);
+                    shared.set(slot);
+                } else {
+                    map.put(key, ((GameRuleInvoker) rule).invokeCopy());
+                }
+            });
+            GameRules copy = GameRulesInvoker.invokeInit(map, enabledFeatures);
+            if (!shared.isEmpty()) {
+                ((GameRulesMixin) (Object) copy).unruled_shared = (BitSet) shared.clone();
+                if (!(this.rules instanceof LinkedHashMap)) this.rules = new LinkedHashMap<>(this.rules);
+                BitSet own = this.unruled_shared == null ? new BitSet(slots.length) : (BitSet) this.unruled_shared.clone();
+                own.or(shared);
+                this.unruled_shared = own;
+            }
+            cir.setReturnValue(copy);
+        }
+    }
+
+    @Inject(method = "get", at = @At("HEAD"))
+    private void onGetInjector(GameRules.Key<?> key, CallbackInfoReturnable<?> cir) {
+        if (this.unruled_shared != null) this.unruled_materialize(((IRuleSlot) key).unruled_getSlot());
+    }
+
+    /**
+     * Reads the boolean and integer getters' rule straight from its slot, without copying it if shared,
+     * as these getters only read its value.
+     */
+    @WrapOperation(method = {"getBoolean", "getInt"}, at = @At(value = "INVOKE", target = "Lnet/minecraft/world/GameRules;get(Lnet/minecraft/world/GameRules$Key;)Lnet/minecraft/world/GameRules$Rule;"))
+    private GameRules.Rule<?> readGetWrapper(GameRules instance, GameRules.Key<?> key, Operation<GameRules.Rule<?>> original) {
+        int slot = ((IRuleSlot) key).unruled_getSlot();
+        GameRules.Rule<?>[] slots = this.unruled_slots;
+        GameRules.Rule<?> rule = slot >= 0 && slot < slots.length ? slots[slot] : null;
+        return rule != null ? rule : original.call(instance, key);
+    }
+
+    @Inject(method = "load", at = @At("HEAD"))
+    private void onLoadHeadInjector(DynamicLike<?> dynamic, CallbackInfo ci) {
+        this.unruled_getOwnedRuleSlots();
+    }
+
+    /**
+     * Replaces the rule of the provided slot by a copy of its own if shared.
+     * The check is repeated under the lock, so that racing threads end up with the same copy.
+     */
+    @Unique
+    private void unruled_materialize(int slot) {
+        BitSet shared = this.unruled_shared;
+        if (shared == null || slot < 0 || !shared.get(slot)) return;
+        synchronized (this) {
+            shared = this.unruled_shared;
+            if (shared == null || !shared.get(slot)) return;
+            this.unruled_copySlot(slot);
+            BitSet next = (BitSet) shared.clone();
+            next.clear(slot);
+            this.unruled_shared = next.isEmpty() ? null : next;
+        }
+    }
+
+    /**
+     * Replaces the rule of the provided slot by a copy. Must hold this instance's lock.
+     */
+    @Unique
+    private void unruled_copySlot(int slot) {
+        GameRules.Rule<?> copy = ((GameRuleInvoker) this.unruled_slots[slot]).invokeCopy();
+        this.unruled_slots[slot] = copy;
+        this.rules.put(RuleSlots.get(slot).getKey(), copy);
+    }
+
+    @Inject(method = "toNbt", at = @At("HEAD"), cancellable = true)
+    private void onToNbtInjector(CallbackInfoReturnable<NbtCompound> cir) {
+        boolean typed = UnruledConfig.typedPersistence();
+        boolean delta = UnruledConfig.deltaPersistence();
+        boolean async = UnruledConfig.asyncPersistence();
+        if (!typed && !delta && !async) return;
+        NbtCompound nbt = new NbtCompound();
+        this.rules.forEach((key, rule) -> {
+            if (async && rule instanceof IDeltaRule) return; // persisted by RuleSidecar
+            if (delta && rule instanceof IDeltaRule d && unruled_isDefault(key, rule, d)) return;
+            if (typed && rule instanceof ITypedNbtRule t) nbt.put(key.getName(), t.unruled_toNbt());
+            else nbt.putString(key.getName(), rule.serialize());
+        });
+        RuleSchemas.writeVersions(nbt);
+        cir.setReturnValue(nbt);
+    }
+
+    @Inject(method = "toNbt", at = @At("RETURN"))
+    private void onToNbtSchemaInjector(CallbackInfoReturnable<NbtCompound> cir) {
+        RuleSchemas.writeVersions(cir.getReturnValue());
+    }
+
+    @Unique
+    private static boolean unruled_isDefault(GameRules.Key<?> key, GameRules.Rule<?> rule, IDeltaRule d) {
+        if (!d.unruled_isDirty()) return true;
+        String def = ((IRuleTypeDefault) RuleSlots.get(key).getType()).unruled_getDefaultValue();
+        if (!rule.serialize().equals(def)) return false;
+        d.unruled_setDirty(false);
+        return true;
+    }
+
+    @Inject(method = "load", at = @At("TAIL"))
+    private void onLoadTypedInjector(DynamicLike<?> dynamic, CallbackInfo ci) {
+        this.rules.forEach((key, rule) -> {
+            if (!(rule instanceof ITypedNbtRule typed)) return;
+            dynamic.get(key.getName()).result()
+                    .map(d -> d.convert(NbtOps.INSTANCE).getValue())
+                    .filter(nbt -> !(nbt instanceof NbtString)) // string values were already loaded by vanilla
+                    .ifPresent(typed::unruled_fromNbt);
+        });
+        RuleSchemas.migrate((GameRules) (Object) this,
+                name -> dynamic.get(name).result().map(d -> d.convert(NbtOps.INSTANCE).getValue()).orElse(null));
+    }
+
+    @Unique
+    private <T extends GameRules.Rule<T>> T unruled_get(GameRules.Key<T> key) {
+        return RuleSlots.peek((GameRules) (Object) this, ((IRuleSlot) key).unruled_getSlot(), key);
+    }
+
+    @Override
+    public GameRules.Rule<?>[] unruled_getRuleSlots() {
+        return this.unruled_slots;
+    }
+
+    @Override
+    public boolean unruled_hasSharedRules() {
+        return this.unruled_shared != null;
+    }
+
+    @Override
+    public GameRules.Rule<?> unruled_getOwnedRule(int slot) {
+        if (slot < 0 || slot >= this.unruled_slots.length) return null;
+        if (this.unruled_shared != null) this.unruled_materialize(slot);
+        return this.unruled_slots[slot];
+    }
+
+    @Override
+    public GameRules.Rule<?>[] unruled_getOwnedRuleSlots() {
+        if (this.unruled_shared == null) return this.unruled_slots;
+        synchronized (this) {
+            BitSet shared = this.unruled_shared;
+            if (shared == null) return this.unruled_slots;
+            for (int i = shared.nextSetBit(0); i >= 0; i = shared.nextSetBit(i + 1)) this.unruled_copySlot(i);
+            this.unruled_shared = null;
+        }
+        return this.unruled_slots;
+    }
 
     @Override
     public float unruled_getFloat(GameRules.Key<FloatRule> key) {
-        return this.get(key).get();
+        return this.unruled_get(key).get();
     }
 
     @Override
     public long unruled_getLong(GameRules.Key<LongRule> key) {
-        return this.get(key).get();
+        return this.unruled_get(key).get();
     }
 
     @Override
     public double unruled_getDouble(GameRules.Key<DoubleRule> key) {
-        return this.get(key).get();
+        return this.unruled_get(key).get();
     }
 
     @Override
     public <T extends Enum<T>> T unruled_getEnum(GameRules.Key<EnumRule<T>> key) {
-        return this.get(key).get();
+        return this.unruled_get(key).get();
     }
 
     @Override
     public String unruled_getString(GameRules.Key<StringRule> key) {
-        return this.get(key).get();
+        return this.unruled_get(key).get();
     }
 
     @Override
     public EntitySelector unruled_getEntitySelector(GameRules.Key<EntitySelectorRule> key) {
-        return this.get(key).get();
+        return this.unruled_get(key).get();
     }
 }
@@ -4,12 +4,16 @@ import com.mojang.brigadier.arguments.ArgumentType;
 import com.mojang.brigadier.builder.RequiredArgumentBuilder;
 import mc.recraftors.unruled_api.utils.EnumArgSupplier;
 import mc.recraftors.unruled_api.rules.EnumRule;
+import mc.recraftors.unruled_api.utils.IDeltaRule;
+import mc.recraftors.unruled_api.utils.IRuleSlot;
+import mc.recraftors.unruled_api.utils.IRuleTypeDefault;
 import net.minecraft.command.CommandSource;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.world.GameRules;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
@@ -17,10 +21,22 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 import java.util.function.Supplier;
 
 @Mixin(GameRules.Type.class)
-public abstract class GameRulesTypeMixin {
+public abstract class GameRulesTypeMixin<T extends GameRules.Rule<T>> implements IRuleSlot, IRuleTypeDefault {
     @Shadow @Final
     Supplier<ArgumentType<?>> argumentType;
 
+    @Shadow public abstract T createRule();
+
+    @Unique
+    private int unruled_slot = -1;
+    @Unique
+    private String unruled_defaultValue;
+
+    @Inject(method = "createRule", at = @At("RETURN"))
+    private void onCreateRuleCleanInjector(CallbackInfoReturnable<T> cir) {
+        if (cir.getReturnValue() instanceof IDeltaRule rule) rule.unruled_setDirty(false);
+    }
+
     @Inject(method = "argument", at = @At("RETURN"))
     private void onArgumentHeadSpecialArgHandler(
             String name, CallbackInfoReturnable<RequiredArgumentBuilder<ServerCommandSource, ?>> cir) {
@@ -28,4 +44,20 @@ public abstract class GameRulesTypeMixin {
             cir.getReturnValue().suggests((context, builder) -> CommandSource.suggestMatching(EnumRule.getEnumNames(supplier.unruled_getTargetClass()), builder));
         }
     }
+
+    @Override
+    public int unruled_getSlot() {
+        return this.unruled_slot;
+    }
+
+    @Override
+    public void unruled_setSlot(int slot) {
+        this.unruled_slot = slot;
+    }
+
+    @Override
+    public String unruled_getDefaultValue() {
+        if (this.unruled_defaultValue == null) this.unruled_defaultValue = this.createRule().serialize();
+        return this.unruled_defaultValue;
+    }
 }
@@ -1,91 +1,167 @@
 package mc.recraftors.unruled_api.mixin;
 
+import com.llamalad7.mixinextras.injector.ModifyExpressionValue;
+import com.llamalad7.mixinextras.injector.v2.WrapWithCondition;
 import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
 import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
-import com.llamalad7.mixinextras.sugar.Local;
-import com.llamalad7.mixinextras.sugar.ref.LocalIntRef;
-import com.mojang.brigadier.StringReader;
-import com.mojang.brigadier.arguments.ArgumentType;
-import com.mojang.brigadier.context.CommandContext;
+import mc.recraftors.unruled_api.impl.NumberParser;
+import mc.recraftors.unruled_api.impl.RuleSlots;
 import mc.recraftors.unruled_api.utils.GameruleAccessor;
+import mc.recraftors.unruled_api.utils.IGameruleAdapter;
+import mc.recraftors.unruled_api.utils.IGameruleValidator;
+import mc.recraftors.unruled_api.utils.IValidatedRule;
+import mc.recraftors.unruled_api.utils.IntRuleAdapter;
+import mc.recraftors.unruled_api.utils.IntRuleValidator;
+import mc.recraftors.unruled_api.utils.ValidationResult;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.world.GameRules;
 import org.objectweb.asm.Opcodes;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
-import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.ModifyVariable;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
-import java.util.Optional;
+import java.util.Objects;
 
+/**
+ * Applies validators and adapters to vanilla integer rules.
+ * <p>
+ * Rules still using the default validator take a fast path in every wrapper,
+ * which neither boxes the value nor calls any validation logic.
+ */
 @Mixin(GameRules.IntRule.class)
-public abstract class IntRuleMixin implements GameruleAccessor<Integer> {
+public abstract class IntRuleMixin implements GameruleAccessor<Integer>, IValidatedRule {
+    @Unique
+    private static final IntRuleValidator DEFAULT_VALIDATOR = IntRuleValidator::alwaysTrue;
+    @Unique
+    private static final IntRuleAdapter DEFAULT_ADAPTER = IntRuleAdapter::identity;
+
     @Shadow private int value;
 
-    @SuppressWarnings("DuplicatedCode")
-    @WrapOperation(method = "setFromArgument", at = @At(value = "INVOKE", target = "Lcom/mojang/brigadier/arguments/IntegerArgumentType;getInteger(Lcom/mojang/brigadier/context/CommandContext;Ljava/lang/String;)I"))
-    private int setFromArgumentParseIntWrapper(CommandContext<?> context, String name, Operation<Integer> original) {
-        int i = original.call(context, name);
-        boolean b = this.unruled_getValidator().validate(i);
-        if (b) return i;
-        Optional<Integer> o = this.unruled_getAdapter().adapt(i);
-        if (o.isPresent()) {
-            b = unruled_getValidator().validate(o.get());
-            if (b) return o.get();
+    @Unique
+    private IntRuleValidator unruled_validator = DEFAULT_VALIDATOR;
+    @Unique
+    private IntRuleAdapter unruled_adapter = DEFAULT_ADAPTER;
+    @Unique
+    private boolean unruled_fastPath = true;
+    @Unique
+    private boolean unruled_rejected = false;
+    @Unique
+    private ValidationResult unruled_lastResult = ValidationResult.OK;
+
+    @ModifyExpressionValue(method = "setFromArgument", at = @At(value = "INVOKE", target = "Lcom/mojang/brigadier/arguments/IntegerArgumentType;getInteger(Lcom/mojang/brigadier/context/CommandContext;Ljava/lang/String;)I"))
+    private int setFromArgumentParseIntWrapper(int i) {
+        this.unruled_lastResult = ValidationResult.OK;
+        if (this.unruled_fastPath || this.unruled_validator.validate(i)) return i;
+        int a = this.unruled_adapter.adapt(i);
+        if (this.unruled_validator.validate(a)) {
+            this.unruled_lastResult = ValidationResult.ADAPTED;
+            return a;
         }
-        throw new IllegalArgumentException("Invalid rule value "+i);
+        this.unruled_lastResult = ValidationResult.REJECTED;
+        return this.value;
     }
 
-    @SuppressWarnings("DuplicatedCode")
     @WrapOperation(method = "deserialize", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/GameRules$IntRule;parseInt(Ljava/lang/String;)I"))
     private int deserializeParseIntWrapper(String input, Operation<Integer> original) {
-        int i = original.call(input);
-        boolean b = this.unruled_getValidator().validate(i);
-        if (b) return i;
-        Optional<Integer> o = this.unruled_getAdapter().adapt(i);
-        if (o.isPresent()) {
-            b = unruled_getValidator().validate(o.get());
-            if (b) return o.get();
-        }
+        NumberParser parser = NumberParser.local();
+        int i = 0;
+        if (parser.parseInt(input)) i = parser.intValue();
+        else if (!input.isEmpty()) NumberParser.warnOnce(RuleSlots.nameOf(((GameRuleInvoker) (Object) this).getRuleType()), "integer", input);
+        if (this.unruled_fastPath || this.unruled_validator.validate(i)) return i;
+        int a = this.unruled_adapter.adapt(i);
+        if (this.unruled_validator.validate(a)) return a;
         return this.value;
     }
 
-    @WrapOperation(method = "validateAndSet", at = @At(value = "INVOKE", target = "Lcom/mojang/brigadier/arguments/ArgumentType;parse(Lcom/mojang/brigadier/StringReader;)Ljava/lang/Object;"))
-    private Object validateParseIntWrapper(ArgumentType<Integer> instance, StringReader stringReader, Operation<Integer> original) {
-        int i = original.call(instance, stringReader);
-        boolean b = this.unruled_getValidator().validate(i);
-        if (b) return i;
-        throw new NumberFormatException();
+    @Inject(method = "validateAndSet", at = @At("HEAD"), cancellable = true)
+    private void validateAndSetInjector(String input, CallbackInfoReturnable<Boolean> cir) {
+        cir.setReturnValue(this.unruled_tryParse(input).isAccepted());
     }
 
-    @WrapOperation(method = "setValue(Lnet/minecraft/world/GameRules$IntRule;Lnet/minecraft/server/MinecraftServer;)V", at = @At(value = "FIELD", target = "Lnet/minecraft/world/GameRules$IntRule;value:I", opcode = Opcodes.GETFIELD))
-    private int setValueLoadFieldWrapper(GameRules.IntRule instance, Operation<Integer> original) {
-        int i = original.call(instance);
-        if (this.unruled_getValidator().validate(i)) return i;
-        Optional<Integer> o = this.unruled_getAdapter().adapt(i);
-        if (o.isPresent() && this.unruled_getValidator().validate(o.get())) return o.get();
+    @ModifyExpressionValue(method = "setValue(Lnet/minecraft/world/GameRules$IntRule;Lnet/minecraft/server/MinecraftServer;)V", at = @At(value = "FIELD", target = "Lnet/minecraft/world/GameRules$IntRule;value:I", opcode = Opcodes.GETFIELD))
+    private int setValueLoadFieldWrapper(int i) {
+        if (this.unruled_fastPath || this.unruled_validator.validate(i)) return i;
+        int a = this.unruled_adapter.adapt(i);
+        if (this.unruled_validator.validate(a)) return a;
         return this.value;
     }
 
-    @Inject(method = "set", at = @At("HEAD"), cancellable = true)
-    private void setValidatorAdapter(int value, MinecraftServer server, CallbackInfo ci, @Local(argsOnly = true, ordinal = 0) LocalIntRef v) {
-        boolean b = this.unruled_getValidator().validate(value);
-        if (b) return;
-        Optional<Integer> o = this.unruled_getAdapter().adapt(value);
-        if (o.isPresent()) {
-            b = this.unruled_getValidator().validate(o.get());
-            if (b) v.set(o.get());
-        } else {
-            ci.cancel();
-        }
+    @ModifyVariable(method = "set", at = @At("HEAD"), argsOnly = true)
+    private int setValidatorAdapter(int i) {
+        if (this.unruled_fastPath) return i;
+        this.unruled_rejected = false;
+        if (this.unruled_validator.validate(i)) return i;
+        int a = this.unruled_adapter.adapt(i);
+        if (this.unruled_validator.validate(a)) return a;
+        this.unruled_rejected = true;
+        return this.value;
+    }
+
+    @WrapWithCondition(method = "set", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/GameRules$IntRule;changed(Lnet/minecraft/server/MinecraftServer;)V"))
+    private boolean setChangedCondition(GameRules.IntRule instance, MinecraftServer server) {
+        return !this.unruled_rejected;
     }
 
     @SuppressWarnings("unchecked")
     @Inject(method = "copy()Lnet/minecraft/world/GameRules$IntRule;", at = @At("RETURN"))
     private void copyReturnInjector(CallbackInfoReturnable<GameRules.IntRule> cir) {
-        ((GameruleAccessor<Integer>) cir.getReturnValue()).unruled_setValidator(this.unruled_getValidator());
-        ((GameruleAccessor<Integer>) cir.getReturnValue()).unruled_setAdapter(this.unruled_getAdapter());
+        if (this.unruled_fastPath) return;
+        ((GameruleAccessor<Integer>) cir.getReturnValue()).unruled_setValidator(this.unruled_validator);
+        ((GameruleAccessor<Integer>) cir.getReturnValue()).unruled_setAdapter(this.unruled_adapter);
+    }
+
+    @Override
+    public void unruled_setValidator(IGameruleValidator<Integer> validator) {
+        this.unruled_validator = IntRuleValidator.of(Objects.requireNonNull(validator));
+        this.unruled_fastPath = this.unruled_validator == DEFAULT_VALIDATOR;
+        this.unruled_rejected = false;
+    }
+
+    @Override
+    public void unruled_setAdapter(IGameruleAdapter<Integer> adapter) {
+        this.unruled_adapter = IntRuleAdapter.of(Objects.requireNonNull(adapter));
+    }
+
+    @Override
+    public IGameruleValidator<Integer> unruled_getValidator() {
+        return this.unruled_validator;
+    }
+
+    @Override
+    public IGameruleAdapter<Integer> unruled_getAdapter() {
+        return this.unruled_adapter;
+    }
+
+    @Override
+    public ValidationResult unruled_tryParse(String input) {
+        NumberParser parser = NumberParser.local();
+        if (!parser.parseInt(input)) return ValidationResult.UNPARSEABLE;
+        int i = parser.intValue();
+        if (this.unruled_fastPath || this.unruled_validator.validate(i)) {
+            this.value = i;
+            return ValidationResult.OK;
+        }
+        i = this.unruled_adapter.adapt(i);
+        if (!this.unruled_validator.validate(i)) return ValidationResult.REJECTED;
+        this.value = i;
+        return ValidationResult.ADAPTED;
+    }
+
+    @Override
+    public ValidationResult unruled_tryValidate(String input) {
+        NumberParser parser = NumberParser.local();
+        if (!parser.parseInt(input)) return ValidationResult.UNPARSEABLE;
+        int i = parser.intValue();
+        if (this.unruled_fastPath || this.unruled_validator.validate(i)) return ValidationResult.OK;
+        return this.unruled_validator.validate(this.unruled_adapter.adapt(i)) ? ValidationResult.ADAPTED : ValidationResult.REJECTED;
+    }
+
+    @Override
+    public ValidationResult unruled_getLastResult() {
+        return this.unruled_lastResult;
     }
 }
@@ -0,0 +1,109 @@
+package mc.recraftors.unruled_api.mixin;
+
+import mc.recraftors.unruled_api.impl.CoalescedCallbacks;
+import mc.recraftors.unruled_api.impl.RuleControl;
+import mc.recraftors.unruled_api.impl.RuleJournal;
+import mc.recraftors.unruled_api.impl.RuleMetrics;
+import mc.recraftors.unruled_api.impl.RuleMirror;
+import mc.recraftors.unruled_api.impl.RuleSidecar;
+import mc.recraftors.unruled_api.impl.RuleSnapshots;
+import mc.recraftors.unruled_api.impl.RuleSync;
+import mc.recraftors.unruled_api.impl.StableRules;
+import mc.recraftors.unruled_api.impl.UnruledConfig;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.WorldSavePath;
+import net.minecraft.world.GameRules;
+import net.minecraft.world.SaveProperties;
+import net.minecraft.world.level.storage.LevelStorage;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.nio.file.Path;
+import java.util.function.BooleanSupplier;
+
+@Mixin(MinecraftServer.class)
+public abstract class MinecraftServerMixin {
+    @Shadow @Final protected LevelStorage.Session session;
+    @Shadow @Final protected SaveProperties saveProperties;
+
+    @Shadow public abstract GameRules getGameRules();
+
+    @Shadow public abstract Path getRunDirectory();
+
+    @Unique
+    private Path unruled_sidecarPath() {
+        return this.session.getDirectory(WorldSavePath.ROOT).resolve(RuleSidecar.FILE_NAME).normalize();
+    }
+
+    @Unique
+    private Path unruled_journalPath() {
+        return this.session.getDirectory(WorldSavePath.ROOT).resolve(RuleJournal.FILE_NAME).normalize();
+    }
+
+    @Unique
+    private Path unruled_mirrorPath() {
+        return this.session.getDirectory(WorldSavePath.ROOT).resolve(RuleMirror.FILE_NAME).normalize();
+    }
+
+    @Inject(method = "loadWorld", at = @At("HEAD"))
+    private void onLoadWorldHeadInjector(CallbackInfo ci) {
+        RuleSidecar.load(this.saveProperties.getGameRules(), this.unruled_sidecarPath());
+        if (UnruledConfig.journal()) RuleJournal.open(this.saveProperties.getGameRules(), this.unruled_journalPath());
+    }
+
+    @Inject(method = "loadWorld", at = @At("TAIL"))
+    private void onLoadWorldInjector(CallbackInfo ci) {
+        RuleSnapshots.bind(this.getGameRules());
+        StableRules.bind(this.getGameRules());
+        if (UnruledConfig.mirror()) RuleMirror.open(this.getGameRules(), this.unruled_mirrorPath());
+        if (UnruledConfig.controlSocket()) RuleControl.open(this.getRunDirectory().resolve(RuleControl.SOCKET_NAME).toAbsolutePath());
+        if (UnruledConfig.metricsPort() > 0) RuleMetrics.open(UnruledConfig.metricsPort());
+    }
+
+    @Inject(method = "tick", at = @At("TAIL"))
+    private void onTickInjector(BooleanSupplier shouldKeepTicking, CallbackInfo ci) {
+        RuleControl.apply((MinecraftServer) (Object) this);
+        CoalescedCallbacks.flushAll((MinecraftServer) (Object) this);
+        RuleSync.flush((MinecraftServer) (Object) this);
+    }
+
+    @Inject(method = "save", at = @At("HEAD"))
+    private void onSaveInjector(boolean suppressLogs, boolean flush, boolean force, CallbackInfoReturnable<Boolean> cir) {
+        if (!UnruledConfig.asyncPersistence()) return;
+        RuleSidecar.save(this.saveProperties.getGameRules(), this.unruled_sidecarPath());
+        if (flush) RuleSidecar.await();
+    }
+
+    @Inject(method = "save", at = @At("RETURN"))
+    private void onSaveReturnInjector(boolean suppressLogs, boolean flush, boolean force, CallbackInfoReturnable<Boolean> cir) {
+        if (!UnruledConfig.asyncPersistence()) {
+            RuleSidecar.delete(this.unruled_sidecarPath());
+            if (cir.getReturnValueZ()) RuleJournal.reset();
+        } else if (flush && cir.getReturnValueZ()) {
+            RuleJournal.reset();
+        }
+    }
+
+    @Inject(method = "shutdown", at = @At("HEAD"))
+    private void onShutdownHeadInjector(CallbackInfo ci) {
+        CoalescedCallbacks.flushAll((MinecraftServer) (Object) this);
+    }
+
+    @Inject(method = "shutdown", at = @At("TAIL"))
+    private void onShutdownInjector(CallbackInfo ci) {
+        RuleSidecar.await();
+        RuleJournal.close();
+        RuleMirror.close();
+        RuleControl.close();
+        RuleMetrics.close();
+        RuleSync.clear();
+        RuleSnapshots.bind(null);
+        StableRules.bind(null);
+    }
+}
@@ -3,11 +3,14 @@ package mc.recraftors.unruled_api.rules;
 import com.mojang.brigadier.arguments.DoubleArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import mc.recraftors.unruled_api.UnruledApi;
+import mc.recraftors.unruled_api.impl.NumberParser;
+import mc.recraftors.unruled_api.impl.RuleSlots;
 import mc.recraftors.unruled_api.mixin.GameRuleTypeInvoker;
-import mc.recraftors.unruled_api.utils.GameruleAccessor;
-import mc.recraftors.unruled_api.utils.IGameRulesVisitor;
-import mc.recraftors.unruled_api.utils.IGameruleAdapter;
-import mc.recraftors.unruled_api.utils.IGameruleValidator;
+import mc.recraftors.unruled_api.utils.*;
+import net.minecraft.nbt.AbstractNbtNumber;
+import net.minecraft.nbt.NbtDouble;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtString;
 import net.minecraft.resource.featuretoggle.FeatureSet;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.command.ServerCommandSource;
@@ -15,26 +18,30 @@ import net.minecraft.world.GameRules;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Objects;
-import java.util.Optional;
 import java.util.function.BiConsumer;
 
 @SuppressWarnings("unused")
-public class DoubleRule extends GameRules.Rule<DoubleRule> implements GameruleAccessor<Double> {
+public class DoubleRule extends GameRules.Rule<DoubleRule> implements GameruleAccessor<Double>, IValidatedRule, ITypedNbtRule, IDeltaRule {
+    private static final DoubleRuleValidator DEFAULT_VALIDATOR = DoubleRuleValidator::alwaysTrue;
+    private static final DoubleRuleAdapter DEFAULT_ADAPTER = DoubleRuleAdapter::identity;
+
     private double value;
-    private IGameruleValidator<Double> validator;
-    private IGameruleAdapter<Double> adapter;
+    private DoubleRuleValidator validator;
+    private DoubleRuleAdapter adapter;
+    private ValidationResult lastResult = ValidationResult.OK;
+    private boolean dirty = true;
 
     public DoubleRule(GameRules.Type<DoubleRule> type, double initialValue, IGameruleValidator<Double> validator, IGameruleAdapter<Double> adapter) {
         super(type);
         Objects.requireNonNull(validator);
         Objects.requireNonNull(adapter);
         this.value = initialValue;
-        this.validator = validator;
-        this.adapter = adapter;
+        this.validator = DoubleRuleValidator.of(validator);
+        this.adapter = DoubleRuleAdapter.of(adapter);
     }
 
     public DoubleRule(GameRules.Type<DoubleRule> type, double initialValue) {
-        this(type, initialValue, IGameruleValidator::alwaysTrue, Optional::of);
+        this(type, initialValue, DEFAULT_VALIDATOR, DEFAULT_ADAPTER);
     }
 
     public static GameRules.Type<DoubleRule> create(double initialValue, BiConsumer<MinecraftServer, DoubleRule> changeCallback,
@@ -44,7 +51,7 @@ public class DoubleRule extends GameRules.Rule<DoubleRule> implements GameruleAc
     }
 
     public static GameRules.Type<DoubleRule> create(double initialValue, BiConsumer<MinecraftServer, DoubleRule> changeCallback) {
-        return create(initialValue, changeCallback, IGameruleValidator::alwaysTrue, Optional::of);
+        return create(initialValue, changeCallback, DEFAULT_VALIDATOR, DEFAULT_ADAPTER);
     }
 
     public static GameRules.Type<DoubleRule> create(double initialValue, IGameruleValidator<Double> validator, IGameruleAdapter<Double> adapter) {
@@ -52,7 +59,7 @@ public class DoubleRule extends GameRules.Rule<DoubleRule> implements GameruleAc
     }
 
     public static GameRules.Type<DoubleRule> create(double initialValue) {
-        return create(initialValue, UnruledApi.empty(), IGameruleValidator::alwaysTrue, Optional::of);
+        return create(initialValue, UnruledApi.empty(), DEFAULT_VALIDATOR, DEFAULT_ADAPTER);
     }
 
     public double get() {
@@ -60,81 +67,54 @@ public class DoubleRule extends GameRules.Rule<DoubleRule> implements GameruleAc
     }
 
     public void set(double value, MinecraftServer server) {
-        if (this.validator.validate(value)) {
-            this.value = value;
+        if (this.set(value)) {
             this.changed(server);
-            return;
         }
-        Optional<Double> o = this.adapter.adapt(value);
-        if (o.isPresent() && this.validator.validate(o.get())) {
-            this.value = o.get();
-            this.changed(server);
+    }
+
+    private boolean set(double d) {
+        return this.trySet(d).isAccepted();
+    }
+
+    private ValidationResult trySet(double d) {
+        if (this.validator.validate(d)) {
+            this.value = d;
+            this.dirty = true;
+            return ValidationResult.OK;
         }
+        d = this.adapter.adapt(d);
+        if (!this.validator.validate(d)) return ValidationResult.REJECTED;
+        this.value = d;
+        this.dirty = true;
+        return ValidationResult.ADAPTED;
+    }
+
+    private ValidationResult check(double d) {
+        if (this.validator.validate(d)) return ValidationResult.OK;
+        return this.validator.validate(this.adapter.adapt(d)) ? ValidationResult.ADAPTED : ValidationResult.REJECTED;
     }
 
     public boolean validate(String input) {
-        try {
-            double d = Double.parseDouble(input);
-            if (this.validator.validate(d)) {
-                this.value = Double.parseDouble(input);
-                return true;
-            }
-            Optional<Double> o = this.adapter.adapt(d);
-            if (o.isPresent() && this.validator.validate(o.get())) {
-                this.value = o.get();
-                return true;
-            }
-            return false;
-        } catch (NumberFormatException e) {
-            return false;
-        }
+        return this.unruled_tryParse(input).isAccepted();
     }
 
-    private static double parseDouble(String input) {
-        if (!input.isEmpty()) {
-            try {
-                return Double.parseDouble(input);
-            } catch (NumberFormatException e) {
-                UnruledApi.LOGGER.warn("Failed to parse double {}", input);
-            }
-        }
+    private double parseDouble(String input) {
+        NumberParser parser = NumberParser.local();
+        if (parser.parseDouble(input)) return parser.doubleValue();
+        if (!input.isEmpty()) NumberParser.warnOnce(RuleSlots.nameOf(this.type), "double", input);
         return 0;
     }
 
     @Override
     protected void setFromArgument(CommandContext<ServerCommandSource> context, String name) {
         double d = DoubleArgumentType.getDouble(context, name);
-        boolean b = this.validator.validate(d);
-        if (b) {
-            this.value = d;
-            return;
-        }
-        Optional<Double> o = this.adapter.adapt(d);
-        if (o.isPresent()) {
-            b = this.validator.validate(o.get());
-            if (b) {
-                this.value = o.get();
-                return;
-            }
-        }
-        throw new IllegalArgumentException("Invalid value "+d);
+        this.lastResult = this.trySet(d);
     }
 
     @Override
     protected void deserialize(String value) {
-        double d = Double.parseDouble(value);
-        boolean b = this.validator.validate(d);
-        if (b) {
-            this.value = d;
-            return;
-        }
-        Optional<Double> o = this.adapter.adapt(d);
-        if (o.isPresent()) {
-            b = this.validator.validate(o.get());
-            if (b) {
-                this.value = o.get();
-            }
-        }
+        double d = this.parseDouble(value);
+        this.set(d);
     }
 
     @Override
@@ -159,19 +139,7 @@ public class DoubleRule extends GameRules.Rule<DoubleRule> implements GameruleAc
 
     @Override
     public void setValue(DoubleRule rule, @Nullable MinecraftServer server) {
-        double d = rule.get();
-        boolean b = this.validator.validate(d);
-        if (!b) {
-            Optional<Double> o = this.adapter.adapt(d);
-            if (o.isPresent() && this.validator.validate(o.get())) {
-                d = o.get();
-                b = true;
-            }
-        }
-        if (b) {
-            this.value = d;
-            this.changed(server);
-        }
+        this.set(rule.get(), server);
     }
 
     @Override
@@ -181,7 +149,7 @@ public class DoubleRule extends GameRules.Rule<DoubleRule> implements GameruleAc
 
     @Override
     public void unruled_setValidator(IGameruleValidator<Double> validator) {
-        this.validator = Objects.requireNonNull(validator);
+        this.validator = DoubleRuleValidator.of(Objects.requireNonNull(validator));
     }
 
     @Override
@@ -191,6 +159,47 @@ public class DoubleRule extends GameRules.Rule<DoubleRule> implements GameruleAc
 
     @Override
     public void unruled_setAdapter(IGameruleAdapter<Double> adapter) {
-        this.adapter = Objects.requireNonNull(adapter);
+        this.adapter = DoubleRuleAdapter.of(Objects.requireNonNull(adapter));
+    }
+
+    @Override
+    public ValidationResult unruled_tryParse(String input) {
+        NumberParser parser = NumberParser.local();
+        if (!parser.parseDouble(input)) return ValidationResult.UNPARSEABLE;
+        return this.trySet(parser.doubleValue());
+    }
+
+    @Override
+    public ValidationResult unruled_tryValidate(String input) {
+        NumberParser parser = NumberParser.local();
+        if (!parser.parseDouble(input)) return ValidationResult.UNPARSEABLE;
+        return this.check(parser.doubleValue());
+    }
+
+    @Override
+    public ValidationResult unruled_getLastResult() {
+        return this.lastResult;
+    }
+
+    @Override
+    public NbtElement unruled_toNbt() {
+        return NbtDouble.of(this.value);
+    }
+
+    @Override
+    public boolean unruled_fromNbt(NbtElement nbt) {
+        if (nbt instanceof AbstractNbtNumber n) return this.set(n.doubleValue());
+        if (nbt instanceof NbtString) return this.unruled_tryParse(nbt.asString()).isAccepted();
+        return false;
+    }
+
+    @Override
+    public boolean unruled_isDirty() {
+        return this.dirty;
+    }
+
+    @Override
+    public void unruled_setDirty(boolean dirty) {
+        this.dirty = dirty;
     }
 }
@@ -1,12 +1,10 @@
 package mc.recraftors.unruled_api.rules;
 
-import com.mojang.brigadier.StringReader;
 import com.mojang.brigadier.context.CommandContext;
-import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import mc.recraftors.unruled_api.impl.EntitySelectorCache;
 import mc.recraftors.unruled_api.mixin.GameRuleTypeInvoker;
 import mc.recraftors.unruled_api.utils.*;
 import net.minecraft.command.EntitySelector;
-import net.minecraft.command.EntitySelectorReader;
 import net.minecraft.command.argument.EntityArgumentType;
 import net.minecraft.resource.featuretoggle.FeatureSet;
 import net.minecraft.server.MinecraftServer;
@@ -18,11 +16,13 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.function.BiConsumer;
 
-public class EntitySelectorRule extends GameRules.Rule<EntitySelectorRule> implements GameruleAccessor<EntitySelector> {
+public class EntitySelectorRule extends GameRules.Rule<EntitySelectorRule> implements GameruleAccessor<EntitySelector>, IValidatedRule, IDeltaRule {
     private EntitySelector value;
     private String str;
     private IGameruleValidator<EntitySelector> validator;
     private IGameruleAdapter<EntitySelector> adapter;
+    private ValidationResult lastResult = ValidationResult.OK;
+    private boolean dirty = true;
 
     public EntitySelectorRule(GameRules.Type<EntitySelectorRule> type, String initialValue, IGameruleValidator<EntitySelector> validator, IGameruleAdapter<EntitySelector> adapter) {
         super(type);
@@ -35,6 +35,14 @@ public class EntitySelectorRule extends GameRules.Rule<EntitySelectorRule> imple
         this.adapter = adapter;
     }
 
+    private EntitySelectorRule(GameRules.Type<EntitySelectorRule> type, String str, EntitySelector value, IGameruleValidator<EntitySelector> validator, IGameruleAdapter<EntitySelector> adapter) {
+        super(type);
+        this.str = str;
+        this.value = value;
+        this.validator = validator;
+        this.adapter = adapter;
+    }
+
     public EntitySelectorRule(GameRules.Type<EntitySelectorRule> type, String initialValue) {
         this(type, initialValue, IGameruleValidator::alwaysTrue, Optional::of);
     }
@@ -67,67 +75,40 @@ public class EntitySelectorRule extends GameRules.Rule<EntitySelectorRule> imple
     }
 
     public boolean validate(String input) {
-        input = input.trim();
-        try {
-            EntitySelector e = parseStr(input);
-            if (this.validator.validate(e)) {
-                this.value = parseStr(input);
-                this.str = input;
-                return true;
-            }
-            Optional<EntitySelector> o = this.adapter.adapt(e);
-            if (o.isPresent() && this.validator.validate(o.get())) {
-                this.value = o.get();
-                this.str = input; // we assume the adapter able to get the same result from the same input
-                return true;
-            }
-            return false;
-        } catch (EncapsulatedException e) {
-            return false;
+        return this.unruled_tryParse(input).isAccepted();
+    }
+
+    private ValidationResult trySet(String input, EntitySelector e) {
+        if (this.validator.validate(e)) {
+            this.value = e;
+            this.dirty = true;
+            this.str = input;
+            return ValidationResult.OK;
         }
+        Optional<EntitySelector> o = this.adapter.adapt(e);
+        if (o.isPresent() && this.validator.validate(o.get())) {
+            this.value = o.get();
+            this.dirty = true;
+            this.str = input; // we assume the adapter able to get the same result from the same input
+            return ValidationResult.ADAPTED;
+        }
+        return ValidationResult.REJECTED;
     }
 
     private static EntitySelector parseStr(String s) throws EncapsulatedException {
-        try {
-            return new EntitySelectorReader(new StringReader(s), true).read(); // TODO See if that should be set to true or false
-        } catch (CommandSyntaxException e) {
-            throw new EncapsulatedException(e);
-        }
+        return EntitySelectorCache.parse(s);
     }
 
     @Override
     protected void setFromArgument(CommandContext<ServerCommandSource> context, String name) {
         String s = context.getArgument(name, String.class);
         EntitySelector e = context.getArgument(name, EntitySelector.class);
-        if (this.validator.validate(e)) {
-            this.value = e;
-            this.str = s;
-            return;
-        }
-        Optional<EntitySelector> o = this.adapter.adapt(e);
-        if (o.isPresent() && this.validator.validate(o.get())) {
-            this.value = o.get();
-            this.str = s;
-            return;
-        }
-        throw new IllegalArgumentException("Unsupported value for input "+s);
+        this.lastResult = this.trySet(s, e);
     }
 
     @Override
     protected void deserialize(String value) {
-        EntitySelector e = parseStr(value);
-        boolean b = this.validator.validate(e);
-        if (!b) {
-            Optional<EntitySelector> o = this.adapter.adapt(e);
-            if (o.isPresent()) {
-                e = o.get();
-                b = this.validator.validate(e);
-            }
-        }
-        if (b) {
-            this.str = value;
-            this.value = e;
-        }
+        this.unruled_tryParse(value);
     }
 
     @Override
@@ -147,21 +128,12 @@ public class EntitySelectorRule extends GameRules.Rule<EntitySelectorRule> imple
 
     @Override
     protected EntitySelectorRule copy() {
-        return new EntitySelectorRule(this.type, this.str, this.validator, this.adapter);
+        return new EntitySelectorRule(this.type, this.str, this.value, this.validator, this.adapter);
     }
 
     @Override
     public void setValue(EntitySelectorRule rule, @Nullable MinecraftServer server) {
-        EntitySelector e = rule.get();
-        if (this.validator.validate(e)){
-            this.value = e;
-            this.str = rule.serialize();
-            return;
-        }
-        Optional<EntitySelector> o = this.adapter.adapt(e);
-        if (o.isEmpty() || !this.validator.validate(o.get())) return;
-        this.str = rule.serialize();
-        this.value = o.get();
+        if (this.trySet(rule.serialize(), rule.get()).isAccepted()) this.changed(server);
     }
 
     @Override
@@ -183,4 +155,36 @@ public class EntitySelectorRule extends GameRules.Rule<EntitySelectorRule> imple
     public void unruled_setAdapter(IGameruleAdapter<EntitySelector> adapter) {
         this.adapter = Objects.requireNonNull(adapter);
     }
+
+    @Override
+    public ValidationResult unruled_tryParse(String input) {
+        input = input.trim();
+        EntitySelector e = EntitySelectorCache.tryParse(input);
+        if (e == null) return ValidationResult.UNPARSEABLE;
+        return this.trySet(input, e);
+    }
+
+    @Override
+    public ValidationResult unruled_tryValidate(String input) {
+        EntitySelector e = EntitySelectorCache.tryParse(input.trim());
+        if (e == null) return ValidationResult.UNPARSEABLE;
+        if (this.validator.validate(e)) return ValidationResult.OK;
+        Optional<EntitySelector> o = this.adapter.adapt(e);
+        return o.isPresent() && this.validator.validate(o.get()) ? ValidationResult.ADAPTED : ValidationResult.REJECTED;
+    }
+
+    @Override
+    public ValidationResult unruled_getLastResult() {
+        return this.lastResult;
+    }
+
+    @Override
+    public boolean unruled_isDirty() {
+        return this.dirty;
+    }
+
+    @Override
+    public void unruled_setDirty(boolean dirty) {
+        this.dirty = dirty;
+    }
 }
@@ -3,8 +3,12 @@ package mc.recraftors.unruled_api.rules;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import mc.recraftors.unruled_api.UnruledApi;
+import mc.recraftors.unruled_api.impl.EnumTable;
 import mc.recraftors.unruled_api.mixin.GameRuleTypeInvoker;
 import mc.recraftors.unruled_api.utils.*;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtString;
 import net.minecraft.resource.featuretoggle.FeatureSet;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.command.ServerCommandSource;
@@ -15,18 +19,31 @@ import java.util.*;
 import java.util.function.BiConsumer;
 
 @SuppressWarnings("unused")
-public class EnumRule <T extends Enum<T>> extends GameRules.Rule<EnumRule<T>> implements GameruleAccessor<T> {
+public class EnumRule <T extends Enum<T>> extends GameRules.Rule<EnumRule<T>> implements GameruleAccessor<T>, IValidatedRule, ITypedNbtRule, IDeltaRule {
     private final Class<T> tClass;
+    private final EnumTable<T> table;
     private T value;
     private IGameruleValidator<T> validator;
     private IGameruleAdapter<T> adapter;
+    private EnumSet<T> validSet;
+    private T[] validArray;
+    private List<T> validValues;
+    private ValidationResult lastResult = ValidationResult.OK;
+    private boolean dirty = true;
 
-    private static <U extends Enum<U>> void testValidator(Class<U> c, IGameruleValidator<U> v) {
-        int i = 0;
-        for (U u : c.getEnumConstants()) {
-            if (v.validate(u)) i++;
+    private static <U extends Enum<U>> EnumSet<U> testValidator(EnumTable<U> table, IGameruleValidator<U> v) {
+        EnumSet<U> set = EnumSet.noneOf(table.getType());
+        for (U u : table.constants()) {
+            if (v.validate(u)) set.add(u);
         }
-        if (i == 0) throw new UnsupportedOperationException("Validator needs to validate at least one enum entry");
+        if (set.isEmpty()) throw new UnsupportedOperationException("Validator needs to validate at least one enum entry");
+        return set;
+    }
+
+    private void cacheValidValues(EnumSet<T> set) {
+        this.validSet = set;
+        this.validArray = set.toArray(Arrays.copyOf(this.table.constants(), 0));
+        this.validValues = Collections.unmodifiableList(Arrays.asList(this.validArray));
     }
 
     public EnumRule(GameRules.Type<EnumRule<T>> type, Class<T> targetClass, T initialValue, IGameruleValidator<T> validator, IGameruleAdapter<T> adapter) {
@@ -35,13 +52,29 @@ public class EnumRule <T extends Enum<T>> extends GameRules.Rule<EnumRule<T>> im
         Objects.requireNonNull(initialValue);
         Objects.requireNonNull(validator);
         Objects.requireNonNull(adapter);
-        testValidator(targetClass, validator);
         this.tClass = targetClass;
+        this.table = EnumTable.of(targetClass);
+        this.cacheValidValues(testValidator(this.table, validator));
         this.value = initialValue;
         this.validator = validator;
         this.adapter = adapter;
     }
 
+    /**
+     * Copy constructor, sharing the source rule's immutable valid values instead of testing its validator again.
+     */
+    private EnumRule(EnumRule<T> source) {
+        super(source.type);
+        this.tClass = source.tClass;
+        this.table = source.table;
+        this.validSet = source.validSet;
+        this.validArray = source.validArray;
+        this.validValues = source.validValues;
+        this.value = source.value;
+        this.validator = source.validator;
+        this.adapter = source.adapter;
+    }
+
     public EnumRule(GameRules.Type<EnumRule<T>> type, Class<T> targetClass, T initialValue) {
         this(type, targetClass, initialValue, IGameruleValidator::alwaysTrue, Optional::of);
     }
@@ -70,30 +103,26 @@ public class EnumRule <T extends Enum<T>> extends GameRules.Rule<EnumRule<T>> im
 
     public Optional<T> parse(String input) {
         Objects.requireNonNull(input);
-        try {
-            return Optional.of(Enum.valueOf(tClass, input));
-        } catch (IllegalArgumentException e) {
-            return Optional.empty();
-        }
+        return this.table.parse(input);
     }
 
     public boolean validate(String input) {
-        return setFromStr(input);
+        return setFromStr(input).isAccepted();
     }
 
-    private boolean setFromStr(String s) {
+    private ValidationResult setFromStr(String s) {
         Optional<T> o = parse(s);
-        if (o.isEmpty()) return false;
-        if (this.validator.validate(o.get())) {
+        if (o.isEmpty()) return ValidationResult.UNPARSEABLE;
+        if (this.validSet.contains(o.get())) {
             this.set(o.get());
-            return true;
+            return ValidationResult.OK;
         }
         o = this.adapter.adapt(o.get());
-        if (o.isPresent() && this.validator.validate(o.get())) {
+        if (o.isPresent() && this.validSet.contains(o.get())) {
             this.set(o.get());
-            return true;
+            return ValidationResult.ADAPTED;
         }
-        return false;
+        return ValidationResult.REJECTED;
     }
 
     public T get() {
@@ -102,6 +131,7 @@ public class EnumRule <T extends Enum<T>> extends GameRules.Rule<EnumRule<T>> im
 
     private void set(T t) {
         this.value = t;
+        this.dirty = true;
     }
 
     public void set(T value, MinecraftServer server) {
@@ -111,11 +141,11 @@ public class EnumRule <T extends Enum<T>> extends GameRules.Rule<EnumRule<T>> im
     private void bump(T value, MinecraftServer server) {
         if (value == null) return;
         boolean b = false;
-        if (this.validator.validate(value)) {
+        if (this.validSet.contains(value)) {
             b = true;
         } else {
             Optional<T> o = this.adapter.adapt(value);
-            if (o.isPresent() && this.validator.validate(o.get())) {
+            if (o.isPresent() && this.validSet.contains(o.get())) {
                 value = o.get();
                 b = true;
             }
@@ -126,28 +156,24 @@ public class EnumRule <T extends Enum<T>> extends GameRules.Rule<EnumRule<T>> im
         }
     }
 
+    /**
+     * Returns a copy of the values accepted by the rule's validator, in declaration order.
+     */
     public T[] values() {
-        List<T> l = Arrays.stream(tClass.getEnumConstants()).filter(this.validator::validate).toList();
-        T[] a = l.toArray(this.tClass.getEnumConstants());
-        int i = 0;
-        for (T t : a) {
-            if (t == null) {
-                break;
-            }
-            i++;
-        }
-        if (i == 0) {
-            a[0] = this.value;
-            i = 1;
-        }
-        a = Arrays.copyOf(a, i);
-        return a;
+        return this.validArray.clone();
+    }
+
+    /**
+     * Returns an unmodifiable view of the values accepted by the rule's validator, in declaration order.
+     */
+    public List<T> validValues() {
+        return this.validValues;
     }
 
     @Override
     protected void setFromArgument(CommandContext<ServerCommandSource> context, String name) {
         String s = StringArgumentType.getString(context, name);
-        setFromStr(s);
+        this.lastResult = setFromStr(s);
     }
 
     @Override
@@ -173,7 +199,7 @@ public class EnumRule <T extends Enum<T>> extends GameRules.Rule<EnumRule<T>> im
 
     @Override
     protected EnumRule<T> copy() {
-        return new EnumRule<>(this.type, this.tClass, this.value, this.validator, this.adapter);
+        return new EnumRule<>(this);
     }
 
     @Override
@@ -183,7 +209,7 @@ public class EnumRule <T extends Enum<T>> extends GameRules.Rule<EnumRule<T>> im
     }
 
     public static <U extends Enum<U>> Iterable<String> getEnumNames(Class<U> target) {
-        return Arrays.stream(target.getEnumConstants()).map(Enum::name).toList();
+        return EnumTable.of(target).names();
     }
 
     @Override
@@ -194,7 +220,7 @@ public class EnumRule <T extends Enum<T>> extends GameRules.Rule<EnumRule<T>> im
     @Override
     public void unruled_setValidator(IGameruleValidator<T> validator) {
         Objects.requireNonNull(validator);
-        testValidator(this.tClass, validator);
+        this.cacheValidValues(testValidator(this.table, validator));
         this.validator = validator;
     }
 
@@ -207,4 +233,61 @@ public class EnumRule <T extends Enum<T>> extends GameRules.Rule<EnumRule<T>> im
     public void unruled_setAdapter(IGameruleAdapter<T> adapter) {
         this.adapter = Objects.requireNonNull(adapter);
     }
+
+    @Override
+    public ValidationResult unruled_tryParse(String input) {
+        return this.setFromStr(input);
+    }
+
+    @Override
+    public ValidationResult unruled_tryValidate(String input) {
+        Optional<T> o = this.parse(input);
+        if (o.isEmpty()) return ValidationResult.UNPARSEABLE;
+        if (this.validSet.contains(o.get())) return ValidationResult.OK;
+        o = this.adapter.adapt(o.get());
+        return o.isPresent() && this.validSet.contains(o.get()) ? ValidationResult.ADAPTED : ValidationResult.REJECTED;
+    }
+
+    @Override
+    public ValidationResult unruled_getLastResult() {
+        return this.lastResult;
+    }
+
+    /**
+     * Persists the rule as its value's name, along with its ordinal as a lookup hint.
+     */
+    @Override
+    public NbtElement unruled_toNbt() {
+        NbtCompound nbt = new NbtCompound();
+        nbt.putString("name", this.value.name());
+        nbt.putInt("ordinal", this.value.ordinal());
+        return nbt;
+    }
+
+    @Override
+    public boolean unruled_fromNbt(NbtElement nbt) {
+        if (nbt instanceof NbtString) return this.setFromStr(nbt.asString()).isAccepted();
+        if (!(nbt instanceof NbtCompound c)) return false;
+        String name = c.getString("name");
+        int ordinal = c.getInt("ordinal");
+        T[] constants = this.table.constants();
+        if (ordinal >= 0 && ordinal < constants.length && constants[ordinal].name().equals(name)) {
+            T t = constants[ordinal];
+            if (this.validSet.contains(t)) {
+                this.set(t);
+                return true;
+            }
+        }
+        return this.setFromStr(name).isAccepted();
+    }
+
+    @Override
+    public boolean unruled_isDirty() {
+        return this.dirty;
+    }
+
+    @Override
+    public void unruled_setDirty(boolean dirty) {
+        this.dirty = dirty;
+    }
 }
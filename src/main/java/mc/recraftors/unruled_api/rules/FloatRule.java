@@ -3,11 +3,14 @@ package mc.recraftors.unruled_api.rules;
 import com.mojang.brigadier.arguments.FloatArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import mc.recraftors.unruled_api.UnruledApi;
+import mc.recraftors.unruled_api.impl.NumberParser;
+import mc.recraftors.unruled_api.impl.RuleSlots;
 import mc.recraftors.unruled_api.mixin.GameRuleTypeInvoker;
-import mc.recraftors.unruled_api.utils.GameruleAccessor;
-import mc.recraftors.unruled_api.utils.IGameRulesVisitor;
-import mc.recraftors.unruled_api.utils.IGameruleAdapter;
-import mc.recraftors.unruled_api.utils.IGameruleValidator;
+import mc.recraftors.unruled_api.utils.*;
+import net.minecraft.nbt.AbstractNbtNumber;
+import net.minecraft.nbt.NbtFloat;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtString;
 import net.minecraft.resource.featuretoggle.FeatureSet;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.command.ServerCommandSource;
@@ -15,26 +18,30 @@ import net.minecraft.world.GameRules;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Objects;
-import java.util.Optional;
 import java.util.function.BiConsumer;
 
 @SuppressWarnings("unused")
-public class FloatRule extends GameRules.Rule<FloatRule> implements GameruleAccessor<Float> {
+public class FloatRule extends GameRules.Rule<FloatRule> implements GameruleAccessor<Float>, IValidatedRule, ITypedNbtRule, IDeltaRule {
+    private static final FloatRuleValidator DEFAULT_VALIDATOR = FloatRuleValidator::alwaysTrue;
+    private static final FloatRuleAdapter DEFAULT_ADAPTER = FloatRuleAdapter::identity;
+
     private float value;
-    private IGameruleValidator<Float> validator;
-    private IGameruleAdapter<Float> adapter;
+    private FloatRuleValidator validator;
+    private FloatRuleAdapter adapter;
+    private ValidationResult lastResult = ValidationResult.OK;
+    private boolean dirty = true;
 
     public FloatRule(GameRules.Type<FloatRule> type, float initialValue, IGameruleValidator<Float> validator, IGameruleAdapter<Float> adapter) {
         super(type);
         Objects.requireNonNull(validator);
         Objects.requireNonNull(adapter);
         this.value = initialValue;
-        this.validator = validator;
-        this.adapter = adapter;
+        this.validator = FloatRuleValidator.of(validator);
+        this.adapter = FloatRuleAdapter.of(adapter);
     }
 
     public FloatRule(GameRules.Type<FloatRule> type, float initialValue) {
-        this(type, initialValue, IGameruleValidator::alwaysTrue, Optional::of);
+        this(type, initialValue, DEFAULT_VALIDATOR, DEFAULT_ADAPTER);
     }
 
     public static GameRules.Type<FloatRule> create(float initialValue, BiConsumer<MinecraftServer, FloatRule> changeCallback, IGameruleValidator<Float> validator, IGameruleAdapter<Float> adapter) {
@@ -43,7 +50,7 @@ public class FloatRule extends GameRules.Rule<FloatRule> implements GameruleAcce
     }
 
     public static GameRules.Type<FloatRule> create(float initialValue, BiConsumer<MinecraftServer, FloatRule> changeCallback) {
-        return create(initialValue, changeCallback, IGameruleValidator::alwaysTrue, Optional::of);
+        return create(initialValue, changeCallback, DEFAULT_VALIDATOR, DEFAULT_ADAPTER);
     }
 
     public static GameRules.Type<FloatRule> create(float initialValue, IGameruleValidator<Float> validator, IGameruleAdapter<Float> adapter) {
@@ -63,61 +70,53 @@ public class FloatRule extends GameRules.Rule<FloatRule> implements GameruleAcce
     }
 
     private void bump(float value, MinecraftServer server) {
-        boolean b = false;
-        if (this.validator.validate(value)) b = true;
-        else {
-            Optional<Float> o = this.adapter.adapt(value);
-            if (o.isPresent() && this.validator.validate(o.get())) {
-                value = o.get();
-                b = true;
-            }
-        }
-        if (b) {
-            this.value = value;
+        if (this.set(value)) {
             this.changed(server);
         }
     }
 
     public boolean validate(String input) {
-        try {
-            float f = Float.parseFloat(input);
-            return this.set(f);
-        } catch (NumberFormatException e) {
-            return false;
-        }
+        return this.unruled_tryParse(input).isAccepted();
     }
 
-    private static float parseFloat(String input) {
-        if (!input.isEmpty()) {
-            try {
-                return Float.parseFloat(input);
-            } catch (NumberFormatException e) {
-                UnruledApi.LOGGER.warn("Failed to parse float {}", input);
-            }
-        }
+    private float parseFloat(String input) {
+        NumberParser parser = NumberParser.local();
+        if (parser.parseFloat(input)) return parser.floatValue();
+        if (!input.isEmpty()) NumberParser.warnOnce(RuleSlots.nameOf(this.type), "float", input);
         return 0;
     }
 
     private boolean set(float f) {
+        return this.trySet(f).isAccepted();
+    }
+
+    private ValidationResult trySet(float f) {
         if (this.validator.validate(f)) {
             this.value = f;
-            return true;
+            this.dirty = true;
+            return ValidationResult.OK;
         }
-        Optional<Float> o = this.adapter.adapt(f);
-        if (o.isEmpty() || !this.validator.validate(o.get())) return false;
-        this.value = o.get();
-        return true;
+        f = this.adapter.adapt(f);
+        if (!this.validator.validate(f)) return ValidationResult.REJECTED;
+        this.value = f;
+        this.dirty = true;
+        return ValidationResult.ADAPTED;
+    }
+
+    private ValidationResult check(float f) {
+        if (this.validator.validate(f)) return ValidationResult.OK;
+        return this.validator.validate(this.adapter.adapt(f)) ? ValidationResult.ADAPTED : ValidationResult.REJECTED;
     }
 
     @Override
     protected void setFromArgument(CommandContext<ServerCommandSource> context, String name) {
         float f = FloatArgumentType.getFloat(context, name);
-        this.set(f);
+        this.lastResult = this.trySet(f);
     }
 
     @Override
     protected void deserialize(String value) {
-        float f = FloatRule.parseFloat(value);
+        float f = this.parseFloat(value);
         this.set(f);
     }
 
@@ -138,7 +137,7 @@ public class FloatRule extends GameRules.Rule<FloatRule> implements GameruleAcce
 
     @Override
     protected FloatRule copy() {
-        return new FloatRule(this.type, this.value);
+        return new FloatRule(this.type, this.value, this.validator, this.adapter);
     }
 
     @Override
@@ -153,7 +152,7 @@ public class FloatRule extends GameRules.Rule<FloatRule> implements GameruleAcce
 
     @Override
     public void unruled_setValidator(IGameruleValidator<Float> validator) {
-        this.validator = Objects.requireNonNull(validator);
+        this.validator = FloatRuleValidator.of(Objects.requireNonNull(validator));
     }
 
     @Override
@@ -163,6 +162,47 @@ public class FloatRule extends GameRules.Rule<FloatRule> implements GameruleAcce
 
     @Override
     public void unruled_setAdapter(IGameruleAdapter<Float> adapter) {
-        this.adapter = Objects.requireNonNull(adapter);
+        this.adapter = FloatRuleAdapter.of(Objects.requireNonNull(adapter));
+    }
+
+    @Override
+    public ValidationResult unruled_tryParse(String input) {
+        NumberParser parser = NumberParser.local();
+        if (!parser.parseFloat(input)) return ValidationResult.UNPARSEABLE;
+        return this.trySet(parser.floatValue());
+    }
+
+    @Override
+    public ValidationResult unruled_tryValidate(String input) {
+        NumberParser parser = NumberParser.local();
+        if (!parser.parseFloat(input)) return ValidationResult.UNPARSEABLE;
+        return this.check(parser.floatValue());
+    }
+
+    @Override
+    public ValidationResult unruled_getLastResult() {
+        return this.lastResult;
+    }
+
+    @Override
+    public NbtElement unruled_toNbt() {
+        return NbtFloat.of(this.value);
+    }
+
+    @Override
+    public boolean unruled_fromNbt(NbtElement nbt) {
+        if (nbt instanceof AbstractNbtNumber n) return this.set(n.floatValue());
+        if (nbt instanceof NbtString) return this.unruled_tryParse(nbt.asString()).isAccepted();
+        return false;
+    }
+
+    @Override
+    public boolean unruled_isDirty() {
+        return this.dirty;
+    }
+
+    @Override
+    public void unruled_setDirty(boolean dirty) {
+        this.dirty = dirty;
     }
 }
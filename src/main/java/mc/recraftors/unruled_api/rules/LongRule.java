@@ -3,11 +3,14 @@ package mc.recraftors.unruled_api.rules;
 import com.mojang.brigadier.arguments.LongArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import mc.recraftors.unruled_api.UnruledApi;
+import mc.recraftors.unruled_api.impl.NumberParser;
+import mc.recraftors.unruled_api.impl.RuleSlots;
 import mc.recraftors.unruled_api.mixin.GameRuleTypeInvoker;
-import mc.recraftors.unruled_api.utils.GameruleAccessor;
-import mc.recraftors.unruled_api.utils.IGameRulesVisitor;
-import mc.recraftors.unruled_api.utils.IGameruleAdapter;
-import mc.recraftors.unruled_api.utils.IGameruleValidator;
+import mc.recraftors.unruled_api.utils.*;
+import net.minecraft.nbt.AbstractNbtNumber;
+import net.minecraft.nbt.NbtLong;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtString;
 import net.minecraft.resource.featuretoggle.FeatureSet;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.command.ServerCommandSource;
@@ -15,26 +18,30 @@ import net.minecraft.world.GameRules;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Objects;
-import java.util.Optional;
 import java.util.function.BiConsumer;
 
 @SuppressWarnings("unused")
-public class LongRule extends GameRules.Rule<LongRule> implements GameruleAccessor<Long> {
+public class LongRule extends GameRules.Rule<LongRule> implements GameruleAccessor<Long>, IValidatedRule, ITypedNbtRule, IDeltaRule {
+    private static final LongRuleValidator DEFAULT_VALIDATOR = LongRuleValidator::alwaysTrue;
+    private static final LongRuleAdapter DEFAULT_ADAPTER = LongRuleAdapter::identity;
+
     private long value;
-    private IGameruleValidator<Long> validator;
-    private IGameruleAdapter<Long> adapter;
+    private LongRuleValidator validator;
+    private LongRuleAdapter adapter;
+    private ValidationResult lastResult = ValidationResult.OK;
+    private boolean dirty = true;
 
     public LongRule(GameRules.Type<LongRule> type, long initialValue, IGameruleValidator<Long> validator, IGameruleAdapter<Long> adapter) {
         super(type);
         Objects.requireNonNull(validator);
         Objects.requireNonNull(adapter);
         this.value = initialValue;
-        this.validator = validator;
-        this.adapter = adapter;
+        this.validator = LongRuleValidator.of(validator);
+        this.adapter = LongRuleAdapter.of(adapter);
     }
 
     public LongRule(GameRules.Type<LongRule> type, long initialValue) {
-        this(type, initialValue, IGameruleValidator::alwaysTrue, Optional::of);
+        this(type, initialValue, DEFAULT_VALIDATOR, DEFAULT_ADAPTER);
     }
 
     public static GameRules.Type<LongRule> create(long initialValue, BiConsumer<MinecraftServer, LongRule> changeCallback, IGameruleValidator<Long> validator, IGameruleAdapter<Long> adapter) {
@@ -43,7 +50,7 @@ public class LongRule extends GameRules.Rule<LongRule> implements GameruleAccess
     }
 
     public static GameRules.Type<LongRule> create(long initialValue, BiConsumer<MinecraftServer, LongRule> changeCallback) {
-        return create(initialValue, changeCallback, IGameruleValidator::alwaysTrue, Optional::of);
+        return create(initialValue, changeCallback, DEFAULT_VALIDATOR, DEFAULT_ADAPTER);
     }
 
     public static GameRules.Type<LongRule> create(long initialValue, IGameruleValidator<Long> validator, IGameruleAdapter<Long> adapter) {
@@ -63,61 +70,53 @@ public class LongRule extends GameRules.Rule<LongRule> implements GameruleAccess
     }
 
     private void bump(long value, MinecraftServer server) {
-        boolean b = false;
-        if (this.validator.validate(value)) b = true;
-        else {
-            Optional<Long> o = this.adapter.adapt(value);
-            if (o.isPresent() && this.validator.validate(o.get())) {
-                value = o.get();
-                b = true;
-            }
-        }
-        if (b) {
-            this.value = value;
+        if (this.set(value)) {
             this.changed(server);
         }
     }
 
-    private boolean set(long f) {
-        if (this.validator.validate(f)) {
-            this.value = f;
-            return true;
+    private boolean set(long l) {
+        return this.trySet(l).isAccepted();
+    }
+
+    private ValidationResult trySet(long l) {
+        if (this.validator.validate(l)) {
+            this.value = l;
+            this.dirty = true;
+            return ValidationResult.OK;
         }
-        Optional<Long> o = this.adapter.adapt(f);
-        if (o.isEmpty() || !this.validator.validate(o.get())) return false;
-        this.value = o.get();
-        return true;
+        l = this.adapter.adapt(l);
+        if (!this.validator.validate(l)) return ValidationResult.REJECTED;
+        this.value = l;
+        this.dirty = true;
+        return ValidationResult.ADAPTED;
+    }
+
+    private ValidationResult check(long l) {
+        if (this.validator.validate(l)) return ValidationResult.OK;
+        return this.validator.validate(this.adapter.adapt(l)) ? ValidationResult.ADAPTED : ValidationResult.REJECTED;
     }
 
     public boolean validate(String input) {
-        try {
-            long l = Long.parseLong(input);
-            return this.set(l);
-        } catch (NumberFormatException e) {
-            return false;
-        }
+        return this.unruled_tryParse(input).isAccepted();
     }
 
-    private static long parseLong(String input) {
-        if (!input.isEmpty()) {
-            try {
-                return Long.parseLong(input);
-            } catch (NumberFormatException e) {
-                UnruledApi.LOGGER.warn("Failed to parse long {}", input);
-            }
-        }
+    private long parseLong(String input) {
+        NumberParser parser = NumberParser.local();
+        if (parser.parseLong(input)) return parser.longValue();
+        if (!input.isEmpty()) NumberParser.warnOnce(RuleSlots.nameOf(this.type), "long", input);
         return 0;
     }
 
     @Override
     protected void setFromArgument(CommandContext<ServerCommandSource> context, String name) {
         long l = LongArgumentType.getLong(context, name);
-        this.set(l);
+        this.lastResult = this.trySet(l);
     }
 
     @Override
     protected void deserialize(String value) {
-        long l = LongRule.parseLong(value);
+        long l = this.parseLong(value);
         this.set(l);
     }
 
@@ -138,7 +137,7 @@ public class LongRule extends GameRules.Rule<LongRule> implements GameruleAccess
 
     @Override
     protected LongRule copy() {
-        return new LongRule(this.type, this.value);
+        return new LongRule(this.type, this.value, this.validator, this.adapter);
     }
 
     @Override
@@ -153,7 +152,7 @@ public class LongRule extends GameRules.Rule<LongRule> implements GameruleAccess
 
     @Override
     public void unruled_setValidator(IGameruleValidator<Long> validator) {
-        this.validator = Objects.requireNonNull(validator);
+        this.validator = LongRuleValidator.of(Objects.requireNonNull(validator));
     }
 
     @Override
@@ -163,6 +162,47 @@ public class LongRule extends GameRules.Rule<LongRule> implements GameruleAccess
 
     @Override
     public void unruled_setAdapter(IGameruleAdapter<Long> adapter) {
-        this.adapter = Objects.requireNonNull(adapter);
+        this.adapter = LongRuleAdapter.of(Objects.requireNonNull(adapter));
+    }
+
+    @Override
+    public ValidationResult unruled_tryParse(String input) {
+        NumberParser parser = NumberParser.local();
+        if (!parser.parseLong(input)) return ValidationResult.UNPARSEABLE;
+        return this.trySet(parser.longValue());
+    }
+
+    @Override
+    public ValidationResult unruled_tryValidate(String input) {
+        NumberParser parser = NumberParser.local();
+        if (!parser.parseLong(input)) return ValidationResult.UNPARSEABLE;
+        return this.check(parser.longValue());
+    }
+
+    @Override
+    public ValidationResult unruled_getLastResult() {
+        return this.lastResult;
+    }
+
+    @Override
+    public NbtElement unruled_toNbt() {
+        return NbtLong.of(this.value);
+    }
+
+    @Override
+    public boolean unruled_fromNbt(NbtElement nbt) {
+        if (nbt instanceof AbstractNbtNumber n) return this.set(n.longValue());
+        if (nbt instanceof NbtString) return this.unruled_tryParse(nbt.asString()).isAccepted();
+        return false;
+    }
+
+    @Override
+    public boolean unruled_isDirty() {
+        return this.dirty;
+    }
+
+    @Override
+    public void unruled_setDirty(boolean dirty) {
+        this.dirty = dirty;
     }
 }
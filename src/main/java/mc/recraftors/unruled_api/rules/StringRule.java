@@ -18,13 +18,16 @@ import java.util.Optional;
 import java.util.function.BiConsumer;
 
 @SuppressWarnings("unused")
-public class StringRule extends GameRules.Rule<StringRule> implements GameruleAccessor<String> {
+public class StringRule extends GameRules.Rule<StringRule> implements GameruleAccessor<String>, IValidatedRule, IDeltaRule {
     public static final Dynamic2CommandExceptionType SIZE_TOO_LONG = new Dynamic2CommandExceptionType((a, b) -> new LiteralMessage("Input must be at most " + a + " long, found " + b));
 
     private final int maxLength;
     private String value;
     private IGameruleValidator<String> validator;
     private IGameruleAdapter<String> adapter;
+    private ValidationResult lastResult = ValidationResult.OK;
+    private boolean lastChanged = true;
+    private boolean dirty = true;
 
     public StringRule(GameRules.Type<StringRule> type, int maxLength, String initialValue, IGameruleValidator<String> validator, IGameruleAdapter<String> adapter) {
         super(type);
@@ -100,6 +103,17 @@ public class StringRule extends GameRules.Rule<StringRule> implements GameruleAc
         return maxLength;
     }
 
+    /**
+     * Stores the provided validated value.
+     * @return Whether the value changed.
+     */
+    protected boolean store(String s) {
+        if (s.equals(this.value)) return false;
+        this.value = s;
+        this.dirty = true;
+        return true;
+    }
+
     protected boolean breaksMaxLength(String input) {
         return input.length() > this.getMaxLength();
     }
@@ -121,46 +135,43 @@ public class StringRule extends GameRules.Rule<StringRule> implements GameruleAc
                 b = true;
             }
         }
-        if (b) {
-            this.value = s;
-            this.changed(server);
-        }
+        if (b && this.store(s)) this.changed(server);
     }
 
-    private boolean set(String s, boolean thr, boolean trc) {
-        if (this.breaksMaxLength(s)) {
-            if (thr) {
-                throw new EncapsulatedException("too long", SIZE_TOO_LONG.create(this.getMaxLength(), s.length()));
-            }
-            if (trc) {
-                s = s.substring(0, this.getMaxLength());
-            } else {
-                return false;
-            }
-        }
+    private ValidationResult trySet(String s) {
+        if (this.breaksMaxLength(s)) return ValidationResult.TOO_LONG;
         if (this.validator.validate(s)) {
-            this.value = s;
-            return true;
+            this.lastChanged = this.store(s);
+            return ValidationResult.OK;
         }
         Optional<String> o = this.adapter.adapt(s);
-        if (o.isEmpty() || !this.validator.validate(o.get())) return false;
-        this.value = o.get();
-        return true;
+        if (o.isEmpty() || !this.validator.validate(o.get())) return ValidationResult.REJECTED;
+        this.lastChanged = this.store(o.get());
+        return ValidationResult.ADAPTED;
+    }
+
+    private ValidationResult check(String s) {
+        if (this.breaksMaxLength(s)) return ValidationResult.TOO_LONG;
+        if (this.validator.validate(s)) return ValidationResult.OK;
+        Optional<String> o = this.adapter.adapt(s);
+        if (o.isEmpty() || !this.validator.validate(o.get())) return ValidationResult.REJECTED;
+        return ValidationResult.ADAPTED;
     }
 
     public boolean validate(String input) {
-        return this.set(input, false, false);
+        return this.trySet(input).isAccepted();
     }
 
     @Override
     protected void setFromArgument(CommandContext<ServerCommandSource> context, String name) {
         String input = StringArgumentType.getString(context, name);
-        this.set(input, true, false);
+        this.lastResult = this.trySet(input);
     }
 
     @Override
     protected void deserialize(String value) {
-        this.set(value, false, true);
+        if (this.breaksMaxLength(value)) value = value.substring(0, this.getMaxLength());
+        this.trySet(value);
     }
 
     @Override
@@ -207,4 +218,34 @@ public class StringRule extends GameRules.Rule<StringRule> implements GameruleAc
     public void unruled_setAdapter(IGameruleAdapter<String> adapter) {
         this.adapter = Objects.requireNonNull(adapter);
     }
+
+    @Override
+    public ValidationResult unruled_tryParse(String input) {
+        return this.trySet(input);
+    }
+
+    @Override
+    public ValidationResult unruled_tryValidate(String input) {
+        return this.check(input);
+    }
+
+    @Override
+    public ValidationResult unruled_getLastResult() {
+        return this.lastResult;
+    }
+
+    @Override
+    public boolean unruled_hasLastChanged() {
+        return this.lastChanged;
+    }
+
+    @Override
+    public boolean unruled_isDirty() {
+        return this.dirty;
+    }
+
+    @Override
+    public void unruled_setDirty(boolean dirty) {
+        this.dirty = dirty;
+    }
 }
@@ -1,7 +1,14 @@
 package mc.recraftors.unruled_api.rules;
 
+import mc.recraftors.unruled_api.impl.ChunkedText;
+import mc.recraftors.unruled_api.impl.UnruledConfig;
 import mc.recraftors.unruled_api.utils.IGameruleAdapter;
 import mc.recraftors.unruled_api.utils.IGameruleValidator;
+import mc.recraftors.unruled_api.utils.ITypedNbtRule;
+import mc.recraftors.unruled_api.utils.ValidationResult;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtString;
 import net.minecraft.world.GameRules;
 
 import java.util.Objects;
@@ -10,10 +17,15 @@ import java.util.Optional;
 /**
  * Technically functional text gamerule for rules beyond 128 characters long.
  * <p>
+ * Values of at least {@link UnruledConfig#textCompressionThreshold()} characters are held as compressed chunks,
+ * shared between copies and reused across changes.
+ * <p>
  * Warning: world creation menu not yet implemented (will appear as a useless button)
  */
-public class TextRule extends StringRule {
+public class TextRule extends StringRule implements ITypedNbtRule {
     private final int maxTextLength;
+    private ChunkedText chunked;
+
     public TextRule(GameRules.Type<StringRule> type, int maxLength, String initialValue, IGameruleValidator<String> validator, IGameruleAdapter<String> adapter) {
         super(type, 1, "", validator, adapter);
         Objects.requireNonNull(initialValue);
@@ -24,13 +36,75 @@ public class TextRule extends StringRule {
         this(type, maxLength, initialValue, IGameruleValidator::alwaysTrue, Optional::of);
     }
 
+    private TextRule(TextRule rule) {
+        super(rule.type, 1, "", rule.unruled_getValidator(), rule.unruled_getAdapter());
+        this.maxTextLength = rule.maxTextLength;
+        this.chunked = rule.chunked;
+        if (this.chunked == null) super.store(rule.get());
+    }
+
+    @Override
+    public String get() {
+        ChunkedText c = this.chunked;
+        return c != null ? c.toString() : super.get();
+    }
+
     @Override
     public int getMaxLength() {
         return this.maxTextLength;
     }
 
+    @Override
+    protected boolean store(String s) {
+        int threshold = UnruledConfig.textCompressionThreshold();
+        if (threshold <= 0 || s.length() < threshold) {
+            boolean wasChunked = this.chunked != null;
+            this.chunked = null;
+            return super.store(s) || wasChunked;
+        }
+        ChunkedText next = ChunkedText.of(s, this.chunked);
+        if (next == this.chunked) return false;
+        this.chunked = next;
+        super.store("");
+        this.unruled_setDirty(true);
+        return true;
+    }
+
+    @Override
+    public int getCommandResult() {
+        ChunkedText c = this.chunked;
+        return c != null ? c.length() : super.getCommandResult();
+    }
+
     @Override
     protected StringRule copy() {
-        return new TextRule(this.type, getMaxLength(), this.get(), this.unruled_getValidator(), this.unruled_getAdapter());
+        return new TextRule(this);
+    }
+
+    @Override
+    public NbtElement unruled_toNbt() {
+        ChunkedText c = this.chunked;
+        return c == null ? NbtString.of(this.get()) : c.toNbt();
+    }
+
+    @Override
+    public boolean unruled_fromNbt(NbtElement nbt) {
+        if (nbt instanceof NbtString) return this.unruled_tryParse(nbt.asString()).isAccepted();
+        if (!(nbt instanceof NbtCompound c)) return false;
+        ChunkedText loaded;
+        try {
+            loaded = ChunkedText.fromNbt(c);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        ChunkedText previous = this.chunked;
+        this.chunked = loaded; // for the loaded chunks to be reused rather than compressed anew
+        ValidationResult result = this.unruled_tryParse(loaded.toString());
+        if (!result.isAccepted()) {
+            this.chunked = previous;
+            return false;
+        }
+        this.unruled_setDirty(true);
+        return true;
     }
 }
@@ -0,0 +1,15 @@
+package mc.recraftors.unruled_api.utils;
+
+/**
+ * Origin of a gamerule change.
+ */
+public enum ChangeSource {
+    /**
+     * Change caused by the {@code /gamerule} command.
+     */
+    COMMAND,
+    /**
+     * Change caused by any other means, such as mods or game screens.
+     */
+    OTHER
+}
@@ -0,0 +1,103 @@
+package mc.recraftors.unruled_api.utils;
+
+import mc.recraftors.unruled_api.rules.*;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.command.EntitySelector;
+import net.minecraft.world.GameRules;
+
+import java.util.BitSet;
+
+/**
+ * Immutable view of the joined server's rule values, safe to read from any thread without locking.
+ * <p>
+ * A new view is published whenever synced values are received, rules which aren't synced reading
+ * as their default value. Until the server's values are received, the view holds the values cached
+ * from the last session on the same server, if any, and {@link #isSynced()} returns {@code false}.
+ */
+@Environment(EnvType.CLIENT)
+public final class ClientRulesView implements IGameRulesProvider {
+    private final Object[] values;
+    private final boolean synced;
+
+    private ClientRulesView(Object[] values, boolean synced) {
+        this.values = values;
+        this.synced = synced;
+    }
+
+    /**
+     * Builds the view of every rule of the provided gamerules.
+     */
+    public static ClientRulesView of(GameRules rules, boolean synced) {
+        GameRules.Rule<?>[] slots = ((IRuleSlotsProvider) rules).unruled_getRuleSlots();
+        Object[] values = new Object[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != null) values[i] = GameRulesSnapshot.valueOf(slots[i]);
+        }
+        return new ClientRulesView(values, synced);
+    }
+
+    /**
+     * Returns a copy of this view with the provided slots' values read anew from the provided gamerules.
+     */
+    public ClientRulesView with(GameRules rules, BitSet changed) {
+        GameRules.Rule<?>[] slots = ((IRuleSlotsProvider) rules).unruled_getRuleSlots();
+        Object[] values = this.values.clone();
+        for (int i = changed.nextSetBit(0); i >= 0 && i < values.length; i = changed.nextSetBit(i + 1)) {
+            if (i < slots.length && slots[i] != null) values[i] = GameRulesSnapshot.valueOf(slots[i]);
+        }
+        return new ClientRulesView(values, this.synced);
+    }
+
+    /**
+     * Returns whether this view's values were received from the joined server,
+     * rather than cached from a previous session or defaulted.
+     */
+    public boolean isSynced() {
+        return this.synced;
+    }
+
+    public Object get(GameRules.Key<?> key) {
+        int slot = ((IRuleSlot) key).unruled_getSlot();
+        return slot >= 0 && slot < this.values.length ? this.values[slot] : null;
+    }
+
+    public boolean getBoolean(GameRules.Key<GameRules.BooleanRule> key) {
+        return this.get(key) instanceof Boolean b && b;
+    }
+
+    public int getInt(GameRules.Key<GameRules.IntRule> key) {
+        return this.get(key) instanceof Integer i ? i : 0;
+    }
+
+    @Override
+    public float unruled_getFloat(GameRules.Key<FloatRule> key) {
+        return this.get(key) instanceof Float f ? f : 0;
+    }
+
+    @Override
+    public long unruled_getLong(GameRules.Key<LongRule> key) {
+        return this.get(key) instanceof Long l ? l : 0;
+    }
+
+    @Override
+    public double unruled_getDouble(GameRules.Key<DoubleRule> key) {
+        return this.get(key) instanceof Double d ? d : 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends Enum<T>> T unruled_getEnum(GameRules.Key<EnumRule<T>> key) {
+        return (T) this.get(key);
+    }
+
+    @Override
+    public String unruled_getString(GameRules.Key<StringRule> key) {
+        return this.get(key) instanceof String s ? s : null;
+    }
+
+    @Override
+    public EntitySelector unruled_getEntitySelector(GameRules.Key<EntitySelectorRule> key) {
+        return this.get(key) instanceof EntitySelector s ? s : null;
+    }
+}
@@ -0,0 +1,20 @@
+package mc.recraftors.unruled_api.utils;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.GameRules;
+
+/**
+ * Rule change callback run at most once per server tick, after the tick's last write.
+ * @param <T> The gamerule's type.
+ * @see mc.recraftors.unruled_api.UnruledApi#coalesced(CoalescedChangeCallback)
+ */
+@FunctionalInterface
+public interface CoalescedChangeCallback<T extends GameRules.Rule<T>> {
+    /**
+     * Called at the end of a server tick during which the rule changed.
+     * @param server The server in which the rule changed.
+     * @param rule The changed rule, holding its final value.
+     * @param writes The number of writes coalesced into this call.
+     */
+    void onChanged(MinecraftServer server, T rule, int writes);
+}
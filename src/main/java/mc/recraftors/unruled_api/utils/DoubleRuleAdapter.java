@@ -0,0 +1,38 @@
+package mc.recraftors.unruled_api.utils;
+
+import java.util.Optional;
+
+/**
+ * Primitive specialization of {@link IGameruleAdapter} for double gamerules.
+ * <p>
+ * Instead of an empty optional, a value which cannot be adapted is rejected
+ * by returning a value the rule's validator refuses, such as the unchanged input.
+ */
+@FunctionalInterface
+public interface DoubleRuleAdapter extends IGameruleAdapter<Double> {
+    double adapt(double d);
+
+    @Override
+    default Optional<Double> adapt(Double d) {
+        return Optional.of(this.adapt(d.doubleValue()));
+    }
+
+    static double identity(double d) {
+        return d;
+    }
+
+    /**
+     * Returns the provided adapter if it already is a primitive one,
+     * or wraps it into a primitive adapter otherwise.
+     * @param adapter The adapter to specialize.
+     * @return A primitive adapter equivalent to the provided one.
+     */
+    static DoubleRuleAdapter of(IGameruleAdapter<Double> adapter) {
+        if (adapter instanceof DoubleRuleAdapter a) return a;
+        return d -> adapter.adapt(d).orElse(d);
+    }
+
+    default DoubleRuleAdapter and(DoubleRuleAdapter other) {
+        return d -> other.adapt(this.adapt(d));
+    }
+}
@@ -0,0 +1,48 @@
+package mc.recraftors.unruled_api.utils;
+
+/**
+ * Primitive specialization of {@link IGameruleValidator} for double gamerules.
+ * <p>
+ * Double rules built with such a validator never box their values when validating them.
+ */
+@FunctionalInterface
+public interface DoubleRuleValidator extends IGameruleValidator<Double> {
+    boolean validate(double d);
+
+    @Override
+    default boolean validate(Double d) {
+        return this.validate(d.doubleValue());
+    }
+
+    static boolean alwaysTrue(double d) {
+        return true;
+    }
+
+    /**
+     * Returns the provided validator if it already is a primitive one,
+     * or wraps it into a primitive validator otherwise.
+     * @param validator The validator to specialize.
+     * @return A primitive validator equivalent to the provided one.
+     */
+    static DoubleRuleValidator of(IGameruleValidator<Double> validator) {
+        if (validator instanceof DoubleRuleValidator v) return v;
+        return d -> validator.validate(d);
+    }
+
+    default DoubleRuleValidator and(DoubleRuleValidator other) {
+        return d -> this.validate(d) && other.validate(d);
+    }
+
+    default DoubleRuleValidator or(DoubleRuleValidator other) {
+        return d -> this.validate(d) || other.validate(d);
+    }
+
+    default DoubleRuleValidator xor(DoubleRuleValidator other) {
+        return d -> this.validate(d) ^ other.validate(d);
+    }
+
+    @Override
+    default DoubleRuleValidator not() {
+        return d -> !this.validate(d);
+    }
+}
@@ -0,0 +1,38 @@
+package mc.recraftors.unruled_api.utils;
+
+import java.util.Optional;
+
+/**
+ * Primitive specialization of {@link IGameruleAdapter} for float gamerules.
+ * <p>
+ * Instead of an empty optional, a value which cannot be adapted is rejected
+ * by returning a value the rule's validator refuses, such as the unchanged input.
+ */
+@FunctionalInterface
+public interface FloatRuleAdapter extends IGameruleAdapter<Float> {
+    float adapt(float f);
+
+    @Override
+    default Optional<Float> adapt(Float f) {
+        return Optional.of(this.adapt(f.floatValue()));
+    }
+
+    static float identity(float f) {
+        return f;
+    }
+
+    /**
+     * Returns the provided adapter if it already is a primitive one,
+     * or wraps it into a primitive adapter otherwise.
+     * @param adapter The adapter to specialize.
+     * @return A primitive adapter equivalent to the provided one.
+     */
+    static FloatRuleAdapter of(IGameruleAdapter<Float> adapter) {
+        if (adapter instanceof FloatRuleAdapter a) return a;
+        return f -> adapter.adapt(f).orElse(f);
+    }
+
+    default FloatRuleAdapter and(FloatRuleAdapter other) {
+        return f -> other.adapt(this.adapt(f));
+    }
+}
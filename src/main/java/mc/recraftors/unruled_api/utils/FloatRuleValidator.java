@@ -0,0 +1,48 @@
+package mc.recraftors.unruled_api.utils;
+
+/**
+ * Primitive specialization of {@link IGameruleValidator} for float gamerules.
+ * <p>
+ * Float rules built with such a validator never box their values when validating them.
+ */
+@FunctionalInterface
+public interface FloatRuleValidator extends IGameruleValidator<Float> {
+    boolean validate(float f);
+
+    @Override
+    default boolean validate(Float f) {
+        return this.validate(f.floatValue());
+    }
+
+    static boolean alwaysTrue(float f) {
+        return true;
+    }
+
+    /**
+     * Returns the provided validator if it already is a primitive one,
+     * or wraps it into a primitive validator otherwise.
+     * @param validator The validator to specialize.
+     * @return A primitive validator equivalent to the provided one.
+     */
+    static FloatRuleValidator of(IGameruleValidator<Float> validator) {
+        if (validator instanceof FloatRuleValidator v) return v;
+        return f -> validator.validate(f);
+    }
+
+    default FloatRuleValidator and(FloatRuleValidator other) {
+        return f -> this.validate(f) && other.validate(f);
+    }
+
+    default FloatRuleValidator or(FloatRuleValidator other) {
+        return f -> this.validate(f) || other.validate(f);
+    }
+
+    default FloatRuleValidator xor(FloatRuleValidator other) {
+        return f -> this.validate(f) ^ other.validate(f);
+    }
+
+    @Override
+    default FloatRuleValidator not() {
+        return f -> !this.validate(f);
+    }
+}
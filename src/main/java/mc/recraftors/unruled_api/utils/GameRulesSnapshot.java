@@ -0,0 +1,102 @@
+package mc.recraftors.unruled_api.utils;
+
+import mc.recraftors.unruled_api.rules.*;
+import net.minecraft.command.EntitySelector;
+import net.minecraft.world.GameRules;
+
+import java.util.Arrays;
+
+/**
+ * Immutable view of the running server's gamerule values, safe to read from any thread.
+ * <p>
+ * A new snapshot is published whenever a rule changes, with an incremented version,
+ * so that readers may tell whether a previously read snapshot is stale
+ * by comparing its version to the current one.
+ * <p>
+ * Values are indexed by the rules' slots. Rules missing from the snapshot read as {@code null}
+ * through {@link #get(GameRules.Key)}, and as the default Java value through the typed getters.
+ */
+public final class GameRulesSnapshot {
+    public static final GameRulesSnapshot EMPTY = new GameRulesSnapshot(0, new Object[0]);
+
+    private final long version;
+    private final Object[] values;
+
+    public GameRulesSnapshot(long version, Object[] values) {
+        this.version = version;
+        this.values = values;
+    }
+
+    public long getVersion() {
+        return this.version;
+    }
+
+    public int size() {
+        return this.values.length;
+    }
+
+    /**
+     * Returns a copy of this snapshot with the provided slot's value replaced.
+     */
+    public GameRulesSnapshot with(int slot, Object value) {
+        Object[] a = Arrays.copyOf(this.values, Math.max(this.values.length, slot + 1));
+        a[slot] = value;
+        return new GameRulesSnapshot(this.version + 1, a);
+    }
+
+    public Object get(int slot) {
+        return slot >= 0 && slot < this.values.length ? this.values[slot] : null;
+    }
+
+    public Object get(GameRules.Key<?> key) {
+        return this.get(((IRuleSlot) key).unruled_getSlot());
+    }
+
+    public boolean getBoolean(GameRules.Key<GameRules.BooleanRule> key) {
+        return this.get(key) instanceof Boolean b && b;
+    }
+
+    public int getInt(GameRules.Key<GameRules.IntRule> key) {
+        return this.get(key) instanceof Integer i ? i : 0;
+    }
+
+    public float getFloat(GameRules.Key<FloatRule> key) {
+        return this.get(key) instanceof Float f ? f : 0;
+    }
+
+    public long getLong(GameRules.Key<LongRule> key) {
+        return this.get(key) instanceof Long l ? l : 0;
+    }
+
+    public double getDouble(GameRules.Key<DoubleRule> key) {
+        return this.get(key) instanceof Double d ? d : 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T extends Enum<T>> T getEnum(GameRules.Key<EnumRule<T>> key) {
+        return (T) this.get(key);
+    }
+
+    public String getString(GameRules.Key<StringRule> key) {
+        return (String) this.get(key);
+    }
+
+    public EntitySelector getEntitySelector(GameRules.Key<EntitySelectorRule> key) {
+        return (EntitySelector) this.get(key);
+    }
+
+    /**
+     * Returns the snapshot value of the provided rule.
+     */
+    public static Object valueOf(GameRules.Rule<?> rule) {
+        if (rule instanceof GameRules.BooleanRule r) return r.get();
+        if (rule instanceof GameRules.IntRule r) return r.get();
+        if (rule instanceof FloatRule r) return r.get();
+        if (rule instanceof LongRule r) return r.get();
+        if (rule instanceof DoubleRule r) return r.get();
+        if (rule instanceof EnumRule<?> r) return r.get();
+        if (rule instanceof StringRule r) return r.get();
+        if (rule instanceof EntitySelectorRule r) return r.get();
+        return rule.serialize();
+    }
+}
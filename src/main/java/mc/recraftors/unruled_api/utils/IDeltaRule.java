@@ -0,0 +1,13 @@
+package mc.recraftors.unruled_api.utils;
+
+/**
+ * Gamerule tracking whether its value may differ from its type's default value,
+ * for only modified rules to be persisted.
+ * <p>
+ * Rules are clean when created from their type, and dirty once their value is set.
+ */
+public interface IDeltaRule {
+    boolean unruled_isDirty();
+
+    void unruled_setDirty(boolean dirty);
+}
@@ -0,0 +1,12 @@
+package mc.recraftors.unruled_api.utils;
+
+/**
+ * Gives access to the dense slot assigned to a gamerule key and type upon registration.
+ */
+public interface IRuleSlot {
+    default int unruled_getSlot() {
+        return -1;
+    }
+
+    default void unruled_setSlot(int slot) {}
+}
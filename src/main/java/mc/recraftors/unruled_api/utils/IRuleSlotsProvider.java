@@ -0,0 +1,38 @@
+package mc.recraftors.unruled_api.utils;
+
+import net.minecraft.world.GameRules;
+
+/**
+ * Gives access to the rules of a {@link GameRules} instance, indexed by their registration slot.
+ * <p>
+ * Rules of a copied instance are shared with the original until accessed for writing,
+ * and must thus only be read through {@link #unruled_getRuleSlots()}.
+ */
+public interface IRuleSlotsProvider {
+    default GameRules.Rule<?>[] unruled_getRuleSlots() {
+        return new GameRules.Rule<?>[0];
+    }
+
+    /**
+     * Returns whether some rules are still shared with another instance.
+     */
+    default boolean unruled_hasSharedRules() {
+        return false;
+    }
+
+    /**
+     * Returns the rule of the provided slot, copied first if shared with another instance,
+     * or {@code null} if none.
+     */
+    default GameRules.Rule<?> unruled_getOwnedRule(int slot) {
+        GameRules.Rule<?>[] slots = this.unruled_getRuleSlots();
+        return slot >= 0 && slot < slots.length ? slots[slot] : null;
+    }
+
+    /**
+     * Returns the rules indexed by slot, every rule shared with another instance being copied first.
+     */
+    default GameRules.Rule<?>[] unruled_getOwnedRuleSlots() {
+        return this.unruled_getRuleSlots();
+    }
+}
@@ -0,0 +1,8 @@
+package mc.recraftors.unruled_api.utils;
+
+/**
+ * Gamerule type caching the serialized form of its default value.
+ */
+public interface IRuleTypeDefault {
+    String unruled_getDefaultValue();
+}
@@ -0,0 +1,22 @@
+package mc.recraftors.unruled_api.utils;
+
+import net.minecraft.nbt.NbtElement;
+
+/**
+ * Gamerule persisted in level data as typed NBT rather than as its string form.
+ * <p>
+ * Loading still accepts the string form, written by older versions or with typed persistence disabled.
+ */
+public interface ITypedNbtRule {
+    /**
+     * Returns the rule's value as typed NBT.
+     */
+    NbtElement unruled_toNbt();
+
+    /**
+     * Loads the rule's value from the provided typed NBT, through the rule's validator.
+     * @param nbt The persisted value.
+     * @return Whether the value was valid and accepted.
+     */
+    boolean unruled_fromNbt(NbtElement nbt);
+}
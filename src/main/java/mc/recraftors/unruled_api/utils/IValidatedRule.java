@@ -0,0 +1,36 @@
+package mc.recraftors.unruled_api.utils;
+
+/**
+ * Exception-free string input handling for gamerules.
+ * <p>
+ * Invalid inputs are reported as {@link ValidationResult} codes,
+ * exceptions only being thrown at the command boundary.
+ */
+public interface IValidatedRule {
+    /**
+     * Parses, validates and applies the provided input, without notifying the rule's change.
+     * @param input The input to apply.
+     * @return The validation outcome, the rule only being modified if accepted.
+     */
+    ValidationResult unruled_tryParse(String input);
+
+    /**
+     * Parses and validates the provided input, without modifying the rule.
+     * @param input The input to check.
+     * @return The validation outcome.
+     */
+    ValidationResult unruled_tryValidate(String input);
+
+    /**
+     * Returns the outcome of the rule's last command-issued modification.
+     */
+    ValidationResult unruled_getLastResult();
+
+    /**
+     * Returns whether the rule's last command-issued modification, if accepted, actually changed its value,
+     * for identical values not to be notified as changes.
+     */
+    default boolean unruled_hasLastChanged() {
+        return true;
+    }
+}
@@ -0,0 +1,38 @@
+package mc.recraftors.unruled_api.utils;
+
+import java.util.Optional;
+
+/**
+ * Primitive specialization of {@link IGameruleAdapter} for integer gamerules.
+ * <p>
+ * Instead of an empty optional, a value which cannot be adapted is rejected
+ * by returning a value the rule's validator refuses, such as the unchanged input.
+ */
+@FunctionalInterface
+public interface IntRuleAdapter extends IGameruleAdapter<Integer> {
+    int adapt(int i);
+
+    @Override
+    default Optional<Integer> adapt(Integer i) {
+        return Optional.of(this.adapt(i.intValue()));
+    }
+
+    static int identity(int i) {
+        return i;
+    }
+
+    /**
+     * Returns the provided adapter if it already is a primitive one,
+     * or wraps it into a primitive adapter otherwise.
+     * @param adapter The adapter to specialize.
+     * @return A primitive adapter equivalent to the provided one.
+     */
+    static IntRuleAdapter of(IGameruleAdapter<Integer> adapter) {
+        if (adapter instanceof IntRuleAdapter a) return a;
+        return i -> adapter.adapt(i).orElse(i);
+    }
+
+    default IntRuleAdapter and(IntRuleAdapter other) {
+        return i -> other.adapt(this.adapt(i));
+    }
+}
@@ -0,0 +1,48 @@
+package mc.recraftors.unruled_api.utils;
+
+/**
+ * Primitive specialization of {@link IGameruleValidator} for integer gamerules.
+ * <p>
+ * Integer rules built with such a validator never box their values when validating them.
+ */
+@FunctionalInterface
+public interface IntRuleValidator extends IGameruleValidator<Integer> {
+    boolean validate(int i);
+
+    @Override
+    default boolean validate(Integer i) {
+        return this.validate(i.intValue());
+    }
+
+    static boolean alwaysTrue(int i) {
+        return true;
+    }
+
+    /**
+     * Returns the provided validator if it already is a primitive one,
+     * or wraps it into a primitive validator otherwise.
+     * @param validator The validator to specialize.
+     * @return A primitive validator equivalent to the provided one.
+     */
+    static IntRuleValidator of(IGameruleValidator<Integer> validator) {
+        if (validator instanceof IntRuleValidator v) return v;
+        return i -> validator.validate(i);
+    }
+
+    default IntRuleValidator and(IntRuleValidator other) {
+        return i -> this.validate(i) && other.validate(i);
+    }
+
+    default IntRuleValidator or(IntRuleValidator other) {
+        return i -> this.validate(i) || other.validate(i);
+    }
+
+    default IntRuleValidator xor(IntRuleValidator other) {
+        return i -> this.validate(i) ^ other.validate(i);
+    }
+
+    @Override
+    default IntRuleValidator not() {
+        return i -> !this.validate(i);
+    }
+}
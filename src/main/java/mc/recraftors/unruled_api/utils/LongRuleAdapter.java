@@ -0,0 +1,38 @@
+package mc.recraftors.unruled_api.utils;
+
+import java.util.Optional;
+
+/**
+ * Primitive specialization of {@link IGameruleAdapter} for long gamerules.
+ * <p>
+ * Instead of an empty optional, a value which cannot be adapted is rejected
+ * by returning a value the rule's validator refuses, such as the unchanged input.
+ */
+@FunctionalInterface
+public interface LongRuleAdapter extends IGameruleAdapter<Long> {
+    long adapt(long l);
+
+    @Override
+    default Optional<Long> adapt(Long l) {
+        return Optional.of(this.adapt(l.longValue()));
+    }
+
+    static long identity(long l) {
+        return l;
+    }
+
+    /**
+     * Returns the provided adapter if it already is a primitive one,
+     * or wraps it into a primitive adapter otherwise.
+     * @param adapter The adapter to specialize.
+     * @return A primitive adapter equivalent to the provided one.
+     */
+    static LongRuleAdapter of(IGameruleAdapter<Long> adapter) {
+        if (adapter instanceof LongRuleAdapter a) return a;
+        return l -> adapter.adapt(l).orElse(l);
+    }
+
+    default LongRuleAdapter and(LongRuleAdapter other) {
+        return l -> other.adapt(this.adapt(l));
+    }
+}
@@ -0,0 +1,48 @@
+package mc.recraftors.unruled_api.utils;
+
+/**
+ * Primitive specialization of {@link IGameruleValidator} for long gamerules.
+ * <p>
+ * Long rules built with such a validator never box their values when validating them.
+ */
+@FunctionalInterface
+public interface LongRuleValidator extends IGameruleValidator<Long> {
+    boolean validate(long l);
+
+    @Override
+    default boolean validate(Long l) {
+        return this.validate(l.longValue());
+    }
+
+    static boolean alwaysTrue(long l) {
+        return true;
+    }
+
+    /**
+     * Returns the provided validator if it already is a primitive one,
+     * or wraps it into a primitive validator otherwise.
+     * @param validator The validator to specialize.
+     * @return A primitive validator equivalent to the provided one.
+     */
+    static LongRuleValidator of(IGameruleValidator<Long> validator) {
+        if (validator instanceof LongRuleValidator v) return v;
+        return l -> validator.validate(l);
+    }
+
+    default LongRuleValidator and(LongRuleValidator other) {
+        return l -> this.validate(l) && other.validate(l);
+    }
+
+    default LongRuleValidator or(LongRuleValidator other) {
+        return l -> this.validate(l) || other.validate(l);
+    }
+
+    default LongRuleValidator xor(LongRuleValidator other) {
+        return l -> this.validate(l) ^ other.validate(l);
+    }
+
+    @Override
+    default LongRuleValidator not() {
+        return l -> !this.validate(l);
+    }
+}
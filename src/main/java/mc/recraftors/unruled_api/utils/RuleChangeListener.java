@@ -0,0 +1,23 @@
+package mc.recraftors.unruled_api.utils;
+
+import net.minecraft.server.MinecraftServer;
+
+/**
+ * Listener to the changes of a server's gamerule.
+ * <p>
+ * Values are of the same type as the rule's {@link GameRulesSnapshot snapshot} values,
+ * i.e. boxed primitives for numeric and boolean rules.
+ * @param <V> The gamerule's value type.
+ * @see mc.recraftors.unruled_api.UnruledApi#subscribe
+ */
+@FunctionalInterface
+public interface RuleChangeListener<V> {
+    /**
+     * Called after the rule changed.
+     * @param server The server in which the rule changed.
+     * @param oldValue The rule's previous value.
+     * @param newValue The rule's new value.
+     * @param source The change's origin.
+     */
+    void onChanged(MinecraftServer server, V oldValue, V newValue, ChangeSource source);
+}
@@ -0,0 +1,85 @@
+package mc.recraftors.unruled_api.utils;
+
+import mc.recraftors.unruled_api.impl.RuleSlots;
+import mc.recraftors.unruled_api.rules.*;
+import net.minecraft.command.EntitySelector;
+import net.minecraft.world.GameRules;
+
+/**
+ * Registered gamerule reference, bound to the dense slot assigned to the rule upon registration.
+ * <p>
+ * Reading a rule through its handle is a single array load in the provided {@link GameRules},
+ * without any map lookup. Obtain handles with {@link mc.recraftors.unruled_api.UnruledApi#getHandle}.
+ * <p>
+ * The typed getters must match the handle's rule type, or will throw a {@link ClassCastException}.
+ * @param <T> The handled gamerule's type.
+ */
+public final class RuleHandle<T extends GameRules.Rule<T>> {
+    private final GameRules.Key<T> key;
+    private final GameRules.Type<T> type;
+    private final int slot;
+
+    public RuleHandle(GameRules.Key<T> key, GameRules.Type<T> type, int slot) {
+        this.key = key;
+        this.type = type;
+        this.slot = slot;
+    }
+
+    public GameRules.Key<T> getKey() {
+        return this.key;
+    }
+
+    public GameRules.Type<T> getType() {
+        return this.type;
+    }
+
+    public int getSlot() {
+        return this.slot;
+    }
+
+    public T get(GameRules rules) {
+        return RuleSlots.lookup(rules, this.slot, this.key);
+    }
+
+    private T peek(GameRules rules) {
+        return RuleSlots.peek(rules, this.slot, this.key);
+    }
+
+    public boolean getBoolean(GameRules rules) {
+        return ((GameRules.BooleanRule) this.peek(rules)).get();
+    }
+
+    public int getInt(GameRules rules) {
+        return ((GameRules.IntRule) this.peek(rules)).get();
+    }
+
+    public float getFloat(GameRules rules) {
+        return ((FloatRule) this.peek(rules)).get();
+    }
+
+    public long getLong(GameRules rules) {
+        return ((LongRule) this.peek(rules)).get();
+    }
+
+    public double getDouble(GameRules rules) {
+        return ((DoubleRule) this.peek(rules)).get();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <E extends Enum<E>> E getEnum(GameRules rules) {
+        return ((EnumRule<E>) this.peek(rules)).get();
+    }
+
+    public String getString(GameRules rules) {
+        return ((StringRule) this.peek(rules)).get();
+    }
+
+    public EntitySelector getEntitySelector(GameRules rules) {
+        return ((EntitySelectorRule) this.peek(rules)).get();
+    }
+
+    @Override
+    public String toString() {
+        return "RuleHandle[" + this.key.getName() + "@" + this.slot + "]";
+    }
+}
@@ -0,0 +1,16 @@
+package mc.recraftors.unruled_api.utils;
+
+/**
+ * Migration of a persisted gamerule value from a schema version to the next one.
+ * @see RuleSchema
+ */
+@FunctionalInterface
+public interface RuleMigration {
+    /**
+     * Migrates the provided serialized value.
+     * @param value The value in the previous schema version's serialized form.
+     * @return The value in the next schema version's serialized form,
+     * or {@code null} for the rule to keep its default value.
+     */
+    String migrate(String value);
+}
@@ -0,0 +1,182 @@
+package mc.recraftors.unruled_api.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reader of the gamerules mirror file, for processes other than the server to read live rule values.
+ * <p>
+ * This class only depends on the JDK, so that other JVMs may use it with nothing but this library on their classpath.
+ * Reading a value is a couple of memory loads in the mapped file, without any system call.
+ * <p>
+ * File format, little-endian: a 24 bytes header made of the {@code UMIR} magic number, a {@code short} format
+ * version, a {@code short} state ({@code 0} while the server runs, {@code 1} once closed), an {@code int} rule count,
+ * an {@code int} offset of the values, and a {@code long} opening time in epoch milliseconds. The header is followed by
+ * the index, an entry per rule made of a {@code byte} {@link Kind} ordinal and a {@code short}-prefixed UTF-8 rule name,
+ * enum rules adding a {@code short} constant count and their {@code short}-prefixed UTF-8 names. Values follow at their
+ * 8 bytes aligned offset, 16 bytes per rule, in index order: an {@code int} sequence number, 4 reserved bytes and the
+ * {@code long} value bits. The sequence number is odd while the value is written, readers retrying until they read
+ * the same even sequence number before and after the value.
+ */
+public final class RuleMirrorReader implements Closeable {
+    public static final int MAGIC = 0x554D4952;
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 24;
+    public static final int SLOT_SIZE = 16;
+    public static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ORDER);
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ORDER);
+
+    /**
+     * Kinds of mirrored rules, defining how their value bits are decoded.
+     */
+    public enum Kind {
+        BOOLEAN, INT, LONG, FLOAT, DOUBLE, ENUM
+    }
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final String[] names;
+    private final Kind[] kinds;
+    private final String[][] constants;
+    private final Map<String, Integer> indices;
+    private final int dataOffset;
+
+    private RuleMirrorReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        this.buffer.order(ORDER);
+        ByteBuffer b = this.buffer.duplicate().order(ORDER);
+        if (b.remaining() < HEADER_SIZE || b.getInt(0) != MAGIC) throw new IOException("Not a gamerules mirror file");
+        if (b.getShort(4) != VERSION) throw new IOException("Unsupported gamerules mirror version " + b.getShort(4));
+        int count = b.getInt(8);
+        this.dataOffset = b.getInt(12);
+        this.names = new String[count];
+        this.kinds = new Kind[count];
+        this.constants = new String[count][];
+        this.indices = new HashMap<>(count * 2);
+        b.position(HEADER_SIZE);
+        for (int i = 0; i < count; i++) {
+            this.kinds[i] = Kind.values()[b.get()];
+            this.names[i] = readString(b);
+            if (this.kinds[i] == Kind.ENUM) {
+                String[] c = new String[b.getShort() & 0xFFFF];
+                for (int j = 0; j < c.length; j++) c[j] = readString(b);
+                this.constants[i] = c;
+            }
+            this.indices.put(this.names[i], i);
+        }
+    }
+
+    private static String readString(ByteBuffer b) {
+        byte[] bytes = new byte[b.getShort() & 0xFFFF];
+        b.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Maps the provided mirror file for reading.
+     * @throws IOException If the file can't be read, or isn't a supported mirror file.
+     */
+    public static RuleMirrorReader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new RuleMirrorReader(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns whether the server writing the mirror is still running.
+     * Once not, the file must be opened anew to read the next server run's values.
+     */
+    public boolean isLive() {
+        return (short) ((int) INT.getAcquire(this.buffer, 4) >>> 16) == 0;
+    }
+
+    public long getOpeningTime() {
+        return this.buffer.getLong(16);
+    }
+
+    public int size() {
+        return this.names.length;
+    }
+
+    /**
+     * Returns the index of the provided rule, or {@code -1} if not mirrored.
+     */
+    public int indexOf(String name) {
+        Integer i = this.indices.get(name);
+        return i == null ? -1 : i;
+    }
+
+    public String getName(int index) {
+        return this.names[index];
+    }
+
+    public Kind getKind(int index) {
+        return this.kinds[index];
+    }
+
+    /**
+     * Returns the consistent value bits of the provided rule.
+     */
+    public long getBits(int index) {
+        int offset = this.dataOffset + index * SLOT_SIZE;
+        while (true) {
+            int before = (int) INT.getAcquire(this.buffer, offset);
+            long bits = (long) LONG.getOpaque(this.buffer, offset + 8);
+            VarHandle.loadLoadFence();
+            int after = (int) INT.getOpaque(this.buffer, offset);
+            if (before == after && (before & 1) == 0) return bits;
+            Thread.onSpinWait();
+        }
+    }
+
+    public boolean getBoolean(int index) {
+        return this.getBits(index) != 0;
+    }
+
+    public int getInt(int index) {
+        return (int) this.getBits(index);
+    }
+
+    public long getLong(int index) {
+        return this.getBits(index);
+    }
+
+    public float getFloat(int index) {
+        return Float.intBitsToFloat((int) this.getBits(index));
+    }
+
+    public double getDouble(int index) {
+        return Double.longBitsToDouble(this.getBits(index));
+    }
+
+    public int getEnumOrdinal(int index) {
+        return (int) this.getBits(index);
+    }
+
+    public String getEnumName(int index) {
+        return this.constants[index][this.getEnumOrdinal(index)];
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
@@ -0,0 +1,77 @@
+package mc.recraftors.unruled_api.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Versioned schema of a gamerule's persisted value.
+ * <p>
+ * Each migration raises the schema version by one, the current version being the number of migrations.
+ * Persisted values of an older version are migrated through the remaining migrations upon loading,
+ * while values of the current version are loaded without any migration.
+ * <p>
+ * A schema may also list the rule's former names, whose persisted values are loaded if the rule's current name
+ * holds none.
+ * @see mc.recraftors.unruled_api.UnruledApi#schema
+ */
+public final class RuleSchema {
+    private final RuleMigration[] migrations;
+    private final String[] formerNames;
+
+    private RuleSchema(RuleMigration[] migrations, String[] formerNames) {
+        this.migrations = migrations;
+        this.formerNames = formerNames;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getVersion() {
+        return this.migrations.length;
+    }
+
+    public String[] getFormerNames() {
+        return this.formerNames.clone();
+    }
+
+
+    /**
+     * Migrates the provided persisted value from the provided schema version to the current one.
+     * @return The migrated value, or {@code null} if a migration dropped it.
+     */
+    public String migrate(String value, int fromVersion) {
+        for (int i = Math.max(0, fromVersion); i < this.migrations.length && value != null; i++) {
+            value = this.migrations[i].migrate(value);
+        }
+        return value;
+    }
+
+    public static final class Builder {
+        private final List<RuleMigration> migrations = new ArrayList<>();
+        private final List<String> formerNames = new ArrayList<>();
+
+        private Builder() {}
+
+        /**
+         * Adds a migration from the current schema version to the next one.
+         */
+        public Builder migration(RuleMigration migration) {
+            this.migrations.add(Objects.requireNonNull(migration));
+            return this;
+        }
+
+        /**
+         * Adds a former name of the rule, names being looked up in the order they were added.
+         */
+        public Builder renamedFrom(String name) {
+            this.formerNames.add(Objects.requireNonNull(name));
+            return this;
+        }
+
+        public RuleSchema build() {
+            return new RuleSchema(this.migrations.toArray(new RuleMigration[0]), this.formerNames.toArray(new String[0]));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package mc.recraftors.unruled_api.utils;
+
+import mc.recraftors.unruled_api.impl.StableRules;
+import net.minecraft.world.GameRules;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.lang.invoke.SwitchPoint;
+import java.util.function.Function;
+
+/**
+ * Gamerule value exposed as a call site the JIT can treat as a constant.
+ * <p>
+ * The call site returns the rule's current value in the running server's gamerules,
+ * or its default value if no server is running. Every change of the rule on the server
+ * invalidates the call site through a {@link SwitchPoint}, after which the next call
+ * reads the new value and relinks the call site.
+ * <p>
+ * Code reading the rule through an {@link #invoker()} stored in a {@code static final} field
+ * is compiled as if the rule were a constant, and deoptimized upon changes.
+ * Stable rules are thus meant for rules which rarely change.
+ * @param <T> The gamerule's type.
+ * @param <V> The gamerule's value type, possibly primitive.
+ */
+public final class StableRule<T extends GameRules.Rule<T>, V> {
+    private static final MethodHandle RELINK;
+
+    static {
+        try {
+            RELINK = MethodHandles.lookup().findVirtual(StableRule.class, "relink", MethodType.methodType(Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final RuleHandle<T> handle;
+    private final Class<V> valueType;
+    private final Function<T, V> reader;
+    private final MutableCallSite site;
+    private final MethodHandle fallback;
+    private final MethodHandle invoker;
+    private SwitchPoint switchPoint;
+
+    public StableRule(RuleHandle<T> handle, Class<V> valueType, Function<T, V> reader) {
+        this.handle = handle;
+        this.valueType = valueType;
+        this.reader = reader;
+        this.site = new MutableCallSite(MethodType.methodType(valueType));
+        this.fallback = RELINK.bindTo(this).asType(this.site.type());
+        this.site.setTarget(this.fallback);
+        this.invoker = this.site.dynamicInvoker();
+    }
+
+    public RuleHandle<T> getHandle() {
+        return this.handle;
+    }
+
+    public Class<V> getValueType() {
+        return this.valueType;
+    }
+
+    /**
+     * Returns the invoker of the rule's call site, taking no argument and returning the rule's value,
+     * of type {@code ()Z} for boolean rules, {@code ()I} for integer rules, and so on.
+     * <p>
+     * Store it in a {@code static final} field and call it with {@link MethodHandle#invokeExact}
+     * for the JIT to fold the rule's value.
+     * @return The call site's invoker.
+     */
+    public MethodHandle invoker() {
+        return this.invoker;
+    }
+
+    /**
+     * Returns the rule's current value through the call site.
+     * <p>
+     * Unlike the {@link #invoker()}, this is not folded by the JIT.
+     * @return The rule's current value.
+     */
+    @SuppressWarnings("unchecked")
+    public V get() {
+        try {
+            return (V) this.invoker.invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * Invalidates the call site, for the next call to read the rule's value anew.
+     */
+    public void invalidate() {
+        SwitchPoint sp;
+        synchronized (this) {
+            sp = this.switchPoint;
+            this.switchPoint = null;
+        }
+        if (sp != null) SwitchPoint.invalidateAll(new SwitchPoint[]{sp});
+    }
+
+    private synchronized Object relink() {
+        GameRules rules = StableRules.getBound();
+        T rule = rules == null ? this.handle.getType().createRule() : this.handle.get(rules);
+        V value = this.reader.apply(rule);
+        SwitchPoint sp = new SwitchPoint();
+        this.site.setTarget(sp.guardWithTest(MethodHandles.constant(this.valueType, value), this.fallback));
+        this.switchPoint = sp;
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "StableRule[" + this.handle.getKey().getName() + "]";
+    }
+}
@@ -0,0 +1,31 @@
+package mc.recraftors.unruled_api.utils;
+
+/**
+ * Outcome of a gamerule input validation, reported without throwing.
+ */
+public enum ValidationResult {
+    /**
+     * The input was accepted as-is.
+     */
+    OK,
+    /**
+     * The input was refused by the validator, but accepted once adapted.
+     */
+    ADAPTED,
+    /**
+     * The input was refused by the validator, even once adapted.
+     */
+    REJECTED,
+    /**
+     * The input could not be parsed as a value of the rule's type.
+     */
+    UNPARSEABLE,
+    /**
+     * The input exceeds the rule's maximum length.
+     */
+    TOO_LONG;
+
+    public boolean isAccepted() {
+        return this == OK || this == ADAPTED;
+    }
+}
@@ -15,7 +15,7 @@ public class EnumRuleWidget <T extends Enum<T>> extends NamedRuleWidget {
     public EnumRuleWidget(Text name, List<OrderedText> description, String ruleName, EnumRule<T> rule, EditGameRulesScreen screen) {
         super(description, name, screen);
         this.valuesWidget = CyclingButtonWidget.<T>builder(t -> Text.of((t).name()))
-                .values(rule.values())
+                .values(rule.validValues())
                 .omitKeyText()
                 .narration(button -> button.getGenericNarrationMessage().append("\n").append(ruleName))
                 .build(10, 5, 44, 20, name, ((button, value) -> rule.set(value, null)));
@@ -4,6 +4,7 @@ import mc.recraftors.unruled_api.UnruledApi;
 import mc.recraftors.unruled_api.impl.OddIntRuleValidatorAdapter;
 import mc.recraftors.unruled_api.impl.RoundingBehaviour;
 import mc.recraftors.unruled_api.test.TestEnum;
+import mc.recraftors.unruled_api.test.TestRules;
 import net.minecraft.world.GameRules;
 import net.minecraft.world.GameRules.Category;
 import org.spongepowered.asm.mixin.Mixin;
@@ -20,7 +21,7 @@ public abstract class TestRulesMixin {
         UnruledApi.registerLong("test.test1", Category.PLAYER, 0,
                 i -> ((i & 1) == 0 && i >= 0 && i < 64), i -> Optional.of(i > 62 ? 62 : i < 0 ? 0 : i + 1)
         );
-        UnruledApi.registerInt("test.test2", Category.CHAT, 1,
+        TestRules.ODD_INT = UnruledApi.registerInt("test.test2", Category.CHAT, 1,
                 new OddIntRuleValidatorAdapter(RoundingBehaviour.CEILING)
         );
         UnruledApi.registerEnum("test.test3", Category.DROPS, TestEnum.class, TestEnum.B,
@@ -0,0 +1,81 @@
+package mc.recraftors.unruled_api.test;
+
+import mc.recraftors.unruled_api.UnruledApi;
+import mc.recraftors.unruled_api.utils.RuleChangeListener;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.GameRules;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link GameRules.IntRule#set(int, MinecraftServer)} on the rules bound to a running server,
+ * called from the server thread, as the game does.
+ * <p>
+ * Measures a rule none of the change features track, the same rule once a change listener is subscribed,
+ * which goes through the whole change notification path, and a rule using a custom validator.
+ * Run by {@link UnruledTestMod} once the server started, with the mixins applied, or as the vanilla baseline
+ * without the setter's mixins when the {@code unruled_api.benchmark.vanilla} system property is set.
+ */
+public final class IntRuleSetBenchmark {
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final long ITERATION_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int BATCH = 10_000;
+
+    private final MinecraftServer server;
+    private long sink;
+    private int i;
+
+    private IntRuleSetBenchmark(MinecraftServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Runs the benchmark on the provided running server's rules. Must be called from the server thread.
+     */
+    public static void run(MinecraftServer server) {
+        if (!server.isOnThread()) throw new IllegalStateException("The benchmark must run on the server thread");
+        IntRuleSetBenchmark benchmark = new IntRuleSetBenchmark(server);
+        GameRules.IntRule rule = server.getGameRules().get(GameRules.RANDOM_TICK_SPEED);
+        String mode = Boolean.getBoolean("unruled_api.benchmark.vanilla") ? "vanilla" : "mixin";
+        benchmark.measure(mode, "untracked", rule);
+        benchmark.measure(mode, "customValidator", server.getGameRules().get(TestRules.ODD_INT));
+        RuleChangeListener<Integer> listener = (s, oldValue, newValue, source) -> {};
+        UnruledApi.subscribeInt(GameRules.RANDOM_TICK_SPEED, listener);
+        benchmark.measure(mode, "subscribed", rule);
+        UnruledApi.unsubscribe(GameRules.RANDOM_TICK_SPEED, listener);
+        UnruledApi.LOGGER.info("Benchmark done ({})", benchmark.sink);
+    }
+
+    private void measure(String mode, String name, GameRules.IntRule rule) {
+        for (int n = 0; n < WARMUP_ITERATIONS; n++) this.iterate(rule);
+        double total = 0;
+        double min = Double.MAX_VALUE;
+        for (int n = 0; n < MEASUREMENT_ITERATIONS; n++) {
+            double score = this.iterate(rule);
+            total += score;
+            min = Math.min(min, score);
+        }
+        UnruledApi.LOGGER.info("IntRule.set [{}] {}: {} ns/op average, {} ns/op best",
+                mode, name, String.format("%.2f", total / MEASUREMENT_ITERATIONS), String.format("%.2f", min));
+    }
+
+    /**
+     * Calls the provided rule's setter in batches for about one iteration's duration.
+     * @return The average duration of a call, in nanoseconds.
+     */
+    private double iterate(GameRules.IntRule rule) {
+        long ops = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int n = 0; n < BATCH; n++) {
+                rule.set(++this.i | 1, this.server);
+                this.sink += rule.get();
+            }
+            ops += BATCH;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < ITERATION_NANOS);
+        return (double) elapsed / ops;
+    }
+}
@@ -0,0 +1,211 @@
+package mc.recraftors.unruled_api.test;
+
+import mc.recraftors.unruled_api.impl.NumberParser;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks {@link NumberParser} against the JDK's parsing methods, which it must match bit for bit
+ * on every input of its grammar.
+ */
+public class NumberParserTest {
+    private static final String[] DOUBLES = {
+            "0", "-0", "+0", "0.0", "-0.0", "+0.0", "000", "0e10", "-0e-10",
+            "NaN", "+NaN", "-NaN", "Infinity", "+Infinity", "-Infinity",
+            "1", "-1", "0.1", "0.2", "0.3", "1.5", ".5", "5.", "-.5", "000123.4500", "123.456e-5", "1E5", "1e+5",
+            // exact fast path edges: mantissas below 2^53, powers of ten up to 1e22
+            "9007199254740991", "9007199254740992", "9007199254740993", "-9007199254740993",
+            "1e22", "1e23", "-1e22", "1e-22", "1e-23", "9007199254740991e22", "9007199254740991e-22", "9007199254740991e-23",
+            "4.35e21", "0.0000000000000000000001",
+            // 19 significant digits and more
+            "1234567890123456789", "9999999999999999999", "12345678901234567890", "1234567890123456789012345",
+            "0.1234567890123456789", "0.12345678901234567891", "1.000000000000000000000000001",
+            "10000000000000000000000", "1000000000000000000000000000000e-30", "99999999999999999999e-20",
+            "123456789012345678901234567890.123456789", "0.000000000000000000000000000001234567890123456789",
+            // overflow and underflow boundaries
+            "1.7976931348623157e308", "1.7976931348623158e308", "1.7976931348623159e308", "-1.7976931348623159e308",
+            "1e308", "1e309", "2.2250738585072014E-308", "2.2250738585072011E-308", "4.9e-324", "2.5e-324",
+            "2.4e-324", "1e-400", "1e100000", "-1e100000", "1e-100000", "1e999999999999", "1e-999999999999"
+    };
+    private static final String[] FLOATS = {
+            "0", "-0", "0.0", "-0.0", "NaN", "-NaN", "Infinity", "-Infinity", "1", "-1", "0.1", "0.3", ".5", "5.",
+            // exact fast path edges: mantissas below 2^24, powers of ten up to 1e10
+            "16777215", "16777216", "16777217", "-16777217", "1e10", "1e11", "1e-10", "1e-11",
+            "16777215e10", "16777215e-10", "16777215e-11", "0.0000000001",
+            // 19 significant digits and more
+            "1234567890123456789", "12345678901234567890", "0.1234567890123456789", "1.00000000000000000001",
+            "3.4028234663852886e38", "1.40129846432481707e-45",
+            // overflow and underflow boundaries
+            "3.4028235e38", "3.4028236e38", "3.5e38", "-3.5e38", "1e39", "1.17549435E-38", "1.4e-45", "7.1e-46",
+            "7e-46", "1e-50", "1e100000", "1e-100000"
+    };
+    private static final String[] LONGS = {
+            "0", "-0", "+0", "+7", "-7", "0000000000000000000000001",
+            "2147483647", "2147483648", "-2147483648", "-2147483649",
+            "9223372036854775807", "-9223372036854775808", "9223372036854775808", "-9223372036854775809",
+            "9223372036854775810", "92233720368547758070", "99999999999999999999", "-99999999999999999999"
+    };
+    private static final String[] INVALID_DECIMALS = {
+            "", "-", "+", ".", "-.", "e5", ".e5", "1e", "1e+", "1e-", "1e5.0", "1.2.3", "--1", "+-1", "-+1",
+            "1d", "1f", "1D", "1F", "0x1p3", "0x10", " 1", "1 ", "\t1", "1_000", "1,5",
+            "nan", "NAN", "infinity", "Inf", "-inf", "NaN0", "Infinity1", "٣", "1٣"
+    };
+    private static final String[] INVALID_LONGS = {
+            "", "-", "+", "--1", "+-1", "1.0", "1e3", " 1", "1 ", "0x10", "1_000", "1L", "٣", "١٢"
+    };
+
+    @Test
+    void parsesDoublesLikeTheJdk() {
+        for (String s : DOUBLES) assertDouble(s);
+    }
+
+    @Test
+    void parsesFloatsLikeTheJdk() {
+        for (String s : FLOATS) assertFloat(s);
+        for (String s : DOUBLES) assertFloat(s);
+    }
+
+    @Test
+    void parsesLongsLikeTheJdk() {
+        for (String s : LONGS) {
+            assertLong(s);
+            assertInt(s);
+        }
+    }
+
+    @Test
+    void parsesRandomDoubleAndFloatStrings() {
+        Random random = new Random(0);
+        for (int i = 0; i < 100_000; i++) {
+            assertDouble(Double.toString(Double.longBitsToDouble(random.nextLong())));
+            assertFloat(Float.toString(Float.intBitsToFloat(random.nextInt())));
+            assertDouble(Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20)));
+        }
+    }
+
+    @Test
+    void parsesRandomDecimalStrings() {
+        Random random = new Random(0);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            sb.setLength(0);
+            if (random.nextBoolean()) sb.append('-');
+            int digits = 1 + random.nextInt(25);
+            int point = random.nextInt(digits + 2) - 1;
+            for (int j = 0; j < digits; j++) {
+                if (j == point) sb.append('.');
+                sb.append((char) ('0' + random.nextInt(10)));
+            }
+            if (random.nextBoolean()) sb.append('e').append(random.nextInt(60) - 30);
+            String s = sb.toString();
+            assertDouble(s);
+            assertFloat(s);
+        }
+    }
+
+    @Test
+    void parsesRandomLongStrings() {
+        Random random = new Random(0);
+        for (int i = 0; i < 100_000; i++) {
+            long l = random.nextLong() >> random.nextInt(64);
+            assertLong(Long.toString(l));
+            assertInt(Long.toString(l));
+            assertLong(Long.toString(l) + random.nextInt(10));
+        }
+    }
+
+    @Test
+    void rejectsInputsOutsideTheGrammar() {
+        NumberParser parser = NumberParser.local();
+        for (String s : INVALID_DECIMALS) {
+            assertFalse(parser.parseDouble(s), s);
+            assertFalse(parser.parseFloat(s), s);
+            assertFalse(NumberParser.isDecimal(s), s);
+        }
+        for (String s : INVALID_LONGS) {
+            assertFalse(parser.parseLong(s), s);
+            assertFalse(parser.parseInt(s), s);
+        }
+        assertFalse(parser.parseDouble(null));
+        assertFalse(parser.parseFloat(null));
+        assertFalse(parser.parseLong(null));
+        assertFalse(parser.parseInt(null));
+        assertFalse(NumberParser.isDecimal(null));
+    }
+
+    @Test
+    void parsesRegions() {
+        NumberParser parser = NumberParser.local();
+        assertTrue(parser.parseDouble("x1.5e3y", 1, 6));
+        assertEquals(1.5e3, parser.doubleValue());
+        assertTrue(parser.parseLong("[-42]", 1, 4));
+        assertEquals(-42, parser.longValue());
+        assertFalse(parser.parseLong("[-42]", 1, 5));
+        assertFalse(parser.parseDouble("1.5", 1, 1));
+    }
+
+    private static ByteBuffer ascii(String s) {
+        return ByteBuffer.wrap(s.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static boolean isLatin1(String s) {
+        return StandardCharsets.ISO_8859_1.newEncoder().canEncode(s);
+    }
+
+    private static void assertDouble(String s) {
+        NumberParser parser = NumberParser.local();
+        double expected = Double.parseDouble(s);
+        assertTrue(parser.parseDouble(s), s);
+        assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(parser.doubleValue()), s);
+        assertTrue(NumberParser.isDecimal(s), s);
+        assertTrue(parser.parseDouble(ascii(s), 0, s.length()), s);
+        assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(parser.doubleValue()), s);
+    }
+
+    private static void assertFloat(String s) {
+        NumberParser parser = NumberParser.local();
+        float expected = Float.parseFloat(s);
+        assertTrue(parser.parseFloat(s), s);
+        assertEquals(Float.floatToIntBits(expected), Float.floatToIntBits(parser.floatValue()), s);
+        assertTrue(parser.parseFloat(ascii(s), 0, s.length()), s);
+        assertEquals(Float.floatToIntBits(expected), Float.floatToIntBits(parser.floatValue()), s);
+    }
+
+    private static void assertLong(String s) {
+        NumberParser parser = NumberParser.local();
+        long expected;
+        try {
+            expected = Long.parseLong(s);
+        } catch (NumberFormatException e) {
+            assertFalse(parser.parseLong(s), s);
+            if (isLatin1(s)) assertFalse(parser.parseLong(ascii(s), 0, s.length()), s);
+            return;
+        }
+        assertTrue(parser.parseLong(s), s);
+        assertEquals(expected, parser.longValue(), s);
+        assertTrue(NumberParser.isLong(s), s);
+        assertTrue(parser.parseLong(ascii(s), 0, s.length()), s);
+        assertEquals(expected, parser.longValue(), s);
+    }
+
+    private static void assertInt(String s) {
+        NumberParser parser = NumberParser.local();
+        int expected;
+        try {
+            expected = Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+            assertFalse(parser.parseInt(s), s);
+            return;
+        }
+        assertTrue(parser.parseInt(s), s);
+        assertEquals(expected, parser.intValue(), s);
+        assertTrue(NumberParser.isInt(s), s);
+    }
+}
@@ -0,0 +1,12 @@
+package mc.recraftors.unruled_api.test;
+
+import net.minecraft.world.GameRules;
+
+/**
+ * Keys of the test rules, registered by the test mixin.
+ */
+public final class TestRules {
+    public static GameRules.Key<GameRules.IntRule> ODD_INT;
+
+    private TestRules() {}
+}
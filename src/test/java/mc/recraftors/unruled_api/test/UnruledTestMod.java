@@ -0,0 +1,20 @@
+package mc.recraftors.unruled_api.test;
+
+import mc.recraftors.unruled_api.UnruledApi;
+import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+
+public class UnruledTestMod implements ModInitializer {
+    @Override
+    public void onInitialize() {
+        if (!Boolean.getBoolean("unruled_api.benchmark")) return;
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            try {
+                IntRuleSetBenchmark.run(server);
+            } catch (RuntimeException e) {
+                UnruledApi.LOGGER.error("Benchmark failed", e);
+            }
+            server.stop(false);
+        });
+    }
+}
@@ -0,0 +1,166 @@
+package mc.recraftors.unruled_api.tool;
+
+import com.mojang.serialization.Dynamic;
+import mc.recraftors.unruled_api.UnruledApi;
+import mc.recraftors.unruled_api.impl.RuleJournal;
+import mc.recraftors.unruled_api.impl.RuleSidecar;
+import mc.recraftors.unruled_api.impl.RuleSlots;
+import mc.recraftors.unruled_api.impl.UnruledConfig;
+import mc.recraftors.unruled_api.mixin.GameRuleInvoker;
+import mc.recraftors.unruled_api.utils.IRuleSlotsProvider;
+import mc.recraftors.unruled_api.utils.IRuleTypeDefault;
+import mc.recraftors.unruled_api.utils.IValidatedRule;
+import mc.recraftors.unruled_api.utils.RuleHandle;
+import mc.recraftors.unruled_api.utils.ValidationResult;
+import net.fabricmc.api.DedicatedServerModInitializer;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.nbt.NbtSizeTracker;
+import net.minecraft.resource.featuretoggle.FeatureFlags;
+import net.minecraft.world.GameRules;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Offline batch tool reading and rewriting gamerules across many world saves.
+ * <p>
+ * The tool runs in place of a dedicated server, once every mod registered its rules, so that the rules' types,
+ * validators and adapters are the registered ones. The server never starts, and no network is used.
+ * <p>
+ * Usage: {@code java -Dunruled_api.tool="<operation> <directory> [rule] [value]" -jar <fabric server launcher>}, with:
+ * <ul>
+ *     <li>{@code get <directory> <rule>}: prints the rule's value in every world</li>
+ *     <li>{@code set <directory> <rule> <value>}: validates and sets the rule's value in every world</li>
+ *     <li>{@code diff <directory> [rule]}: prints the rules differing from their default value in every world</li>
+ * </ul>
+ * Every {@code level.dat} file under the directory is processed in parallel.
+ * Modified files are written atomically, the previous one being kept as {@code level.dat_old}.
+ * Worlds must not be running while processed, and worlds whose journal still holds changes are refused,
+ * as the journal would override their level data once loaded.
+ * <p>
+ * Shipped as a separate mod jar, only to be installed alongside the library when running the tool.
+ */
+public class RulesTool implements DedicatedServerModInitializer {
+    public static final String PROPERTY = UnruledApi.MOD_ID + ".tool";
+    private static final String LEVEL_DAT = "level.dat";
+
+    private enum Operation {
+        GET, SET, DIFF
+    }
+
+    @Override
+    public void onInitializeServer() {
+        String spec = System.getProperty(PROPERTY);
+        if (spec == null || spec.isBlank()) return;
+        System.exit(run(spec.trim().split("\\s+")));
+    }
+
+    public static int run(String[] args) {
+        if (args.length < 2) return usage();
+        Operation op;
+        try {
+            op = Operation.valueOf(args[0].toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return usage();
+        }
+        Path root = Path.of(args[1]);
+        String rule = args.length > 2 ? args[2] : null;
+        String value = args.length > 3 ? String.join(" ", Arrays.copyOfRange(args, 3, args.length)) : null;
+        if ((op != Operation.DIFF && rule == null) || (op == Operation.SET && value == null)) return usage();
+        if (rule != null && RuleSlots.get(rule) == null) {
+            System.err.println("Unknown gamerule " + rule);
+            return 2;
+        }
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(root)) {
+            files = stream.filter(p -> p.getFileName().toString().equals(LEVEL_DAT)).sorted().toList();
+        } catch (IOException e) {
+            System.err.println("Failed to scan " + root + ": " + e);
+            return 2;
+        }
+        List<List<String>> results = files.parallelStream().map(file -> process(file, op, rule, value)).toList();
+        int failures = 0;
+        for (List<String> lines : results) {
+            for (String line : lines) {
+                if (line.startsWith("!")) {
+                    failures++;
+                    System.err.println(line.substring(1));
+                } else {
+                    System.out.println(line);
+                }
+            }
+        }
+        System.out.println("Processed " + files.size() + " worlds, " + failures + " failures");
+        return failures == 0 ? 0 : 1;
+    }
+
+    private static int usage() {
+        System.err.println("Usage: -D" + PROPERTY + "=\"get|set|diff <directory> [rule] [value]\"");
+        return 2;
+    }
+
+    private static List<String> process(Path file, Operation op, String ruleName, String value) {
+        List<String> out = new ArrayList<>();
+        Path dir = file.getParent();
+        try {
+            if (RuleJournal.hasRecords(dir.resolve(RuleJournal.FILE_NAME))) {
+                out.add("!" + dir + "\tUnreplayed gamerules journal, load the world once before processing it");
+                return out;
+            }
+            NbtCompound root = NbtIo.readCompressed(file, NbtSizeTracker.ofUnlimitedBytes());
+            NbtCompound data = root.getCompound("Data");
+            GameRules rules = new GameRules(FeatureFlags.FEATURE_MANAGER.getFeatureSet(),
+                    new Dynamic<>(NbtOps.INSTANCE, data.getCompound("GameRules")));
+            RuleSidecar.load(rules, dir.resolve(RuleSidecar.FILE_NAME));
+            GameRules.Rule<?>[] slots = ((IRuleSlotsProvider) rules).unruled_getRuleSlots();
+            switch (op) {
+                case GET -> out.add(dir + "\t" + ruleName + "\t" + slots[RuleSlots.get(ruleName).getSlot()].serialize());
+                case DIFF -> {
+                    for (int i = 0; i < slots.length; i++) {
+                        RuleHandle<?> handle = RuleSlots.get(i);
+                        if (slots[i] == null || (ruleName != null && !handle.getKey().getName().equals(ruleName))) continue;
+                        String current = slots[i].serialize();
+                        String def = ((IRuleTypeDefault) handle.getType()).unruled_getDefaultValue();
+                        if (!current.equals(def)) out.add(dir + "\t" + handle.getKey().getName() + "\t" + def + " -> " + current);
+                    }
+                }
+                case SET -> {
+                    GameRules.Rule<?> rule = slots[RuleSlots.get(ruleName).getSlot()];
+                    if (rule instanceof IValidatedRule validated) {
+                        ValidationResult result = validated.unruled_tryParse(value);
+                        if (!result.isAccepted()) {
+                            out.add("!" + dir + "\t" + ruleName + "\t" + result);
+                            return out;
+                        }
+                    } else {
+                        ((GameRuleInvoker) rule).invokeDeserialize(value);
+                    }
+                    data.put("GameRules", rules.toNbt());
+                    write(root, file);
+                    Path sidecar = dir.resolve(RuleSidecar.FILE_NAME);
+                    if (UnruledConfig.asyncPersistence()) RuleSidecar.save(rules, sidecar).join();
+                    else RuleSidecar.delete(sidecar);
+                    out.add(dir + "\t" + ruleName + "\t" + rule.serialize());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            out.add("!" + dir + "\t" + e);
+        }
+        return out;
+    }
+
+    private static void write(NbtCompound root, Path file) throws IOException {
+        Path tmp = file.resolveSibling(LEVEL_DAT + ".tmp");
+        NbtIo.writeCompressed(root, tmp);
+        Files.copy(file, file.resolveSibling(LEVEL_DAT + "_old"), StandardCopyOption.REPLACE_EXISTING);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}